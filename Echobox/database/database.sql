@@ -37,6 +37,10 @@ CREATE TABLE "user"
     CONSTRAINT fk_user_company FOREIGN KEY (fk_user_idCompany) REFERENCES company (idCompany) ON DELETE CASCADE
 );
 
+-- Logins match the email case-insensitively, so it is unique case-insensitively too
+CREATE UNIQUE INDEX uq_user_email_lower ON "user" (lower(emailUser));
+CREATE INDEX idx_user_company ON "user" (fk_user_idCompany);
+
 CREATE table category
 (
     idCategory    SERIAL PRIMARY KEY NOT NULL,
@@ -61,12 +65,31 @@ CREATE TABLE feedback
     fk_feedback_idCategory INT                NOT NULL,
     fk_feedback_idStatus   INT                NOT NULL,
 
+    -- Full-text search vectors, one per supported locale (messages_pt / messages_en), titles weigh more than reviews
+    searchPtFeedback       TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', titleFeedback), 'A') ||
+        setweight(to_tsvector('portuguese', reviewFeedback), 'B')) STORED,
+    searchEnFeedback       TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', titleFeedback), 'A') ||
+        setweight(to_tsvector('english', reviewFeedback), 'B')) STORED,
+
     CONSTRAINT fk_feedback_user FOREIGN KEY (fk_feedback_idUser) REFERENCES "user" (idUser) ON DELETE CASCADE,
     CONSTRAINT fk_feedback_company FOREIGN KEY (fk_feedback_idCompany) REFERENCES company (idCompany) ON DELETE CASCADE,
     CONSTRAINT fk_feedback_category FOREIGN KEY (fk_feedback_idCategory) REFERENCES category (idCategory),
     CONSTRAINT fk_feedback_status FOREIGN KEY (fk_feedback_idStatus) REFERENCES status (idStatus)
 );
 
+CREATE INDEX idx_feedback_search_pt ON feedback USING GIN (searchPtFeedback);
+CREATE INDEX idx_feedback_search_en ON feedback USING GIN (searchEnFeedback);
+
+-- Covers the GROUP BY of the feedback rollup, so the counts are read from the index alone
+CREATE INDEX idx_feedback_rollup ON feedback (fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus);
+
+-- Foreign key columns are indexed so cascades and reference checks don't scan the table (company: idx_feedback_rollup)
+CREATE INDEX idx_feedback_user ON feedback (fk_feedback_idUser);
+CREATE INDEX idx_feedback_category ON feedback (fk_feedback_idCategory);
+CREATE INDEX idx_feedback_status ON feedback (fk_feedback_idStatus);
+
 CREATE TABLE reply
 (
     idReply             SERIAL PRIMARY KEY NOT NULL,
@@ -74,8 +97,47 @@ CREATE TABLE reply
     reviewReply         TEXT               NOT NULL,
     fk_reply_idFeedback INT                NOT NULL,
     fk_reply_idUser     INT                NOT NULL,
-    createdDate         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    createdDate         TIMESTAMP          NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
     CONSTRAINT fk_reply_feedback FOREIGN KEY (fk_reply_idFeedback) REFERENCES feedback (idFeedback) ON DELETE CASCADE,
     CONSTRAINT fk_reply_user FOREIGN KEY (fk_reply_idUser) REFERENCES "user" (idUser) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Serves the replies of a feedback in keyset order (createdDate, idReply), oldest first
+CREATE INDEX idx_reply_feedback_created ON reply (fk_reply_idFeedback, createdDate, idReply);
+CREATE INDEX idx_reply_user ON reply (fk_reply_idUser);
+
+CREATE TABLE refresh_token
+(
+    idRefreshToken         BIGSERIAL PRIMARY KEY NOT NULL,
+    hashRefreshToken       VARCHAR(64)           NOT NULL UNIQUE,
+    familyRefreshToken     UUID                  NOT NULL,
+    fk_refreshToken_idUser INT                   NOT NULL,
+    expiresAtRefreshToken  TIMESTAMP             NOT NULL,
+    usedAtRefreshToken     TIMESTAMP,
+
+    CONSTRAINT fk_refreshToken_user FOREIGN KEY (fk_refreshToken_idUser) REFERENCES "user" (idUser) ON DELETE CASCADE
+);
+
+-- Reuse of a rotated token revokes its whole rotation chain at once
+CREATE INDEX idx_refresh_token_family ON refresh_token (familyRefreshToken);
+CREATE INDEX idx_refresh_token_user ON refresh_token (fk_refreshToken_idUser);
+
+CREATE TABLE revoked_token
+(
+    jtiRevokedToken       UUID PRIMARY KEY NOT NULL,
+    expiresAtRevokedToken TIMESTAMP        NOT NULL,
+    revokedAtRevokedToken TIMESTAMP        NOT NULL
+);
+
+-- Instances poll for revocations newer than the last one they have seen
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token (revokedAtRevokedToken);
+
+-- Hibernate allocates ids in blocks of 50 (pooled-lo), the increment must match allocationSize on the entities
+ALTER SEQUENCE company_idcompany_seq INCREMENT BY 50;
+ALTER SEQUENCE user_iduser_seq INCREMENT BY 50;
+ALTER SEQUENCE category_idcategory_seq INCREMENT BY 50;
+ALTER SEQUENCE status_idstatus_seq INCREMENT BY 50;
+ALTER SEQUENCE feedback_idfeedback_seq INCREMENT BY 50;
+ALTER SEQUENCE reply_idreply_seq INCREMENT BY 50;
+ALTER SEQUENCE refresh_token_idrefreshtoken_seq INCREMENT BY 50;
@@ -10,12 +10,13 @@ TRUNCATE TABLE category CASCADE;
 TRUNCATE TABLE "status" CASCADE;
 
 -- Reset sequences for SERIAL columns after TRUNCATE
-ALTER SEQUENCE category_idcategory_seq RESTART WITH 1;
-ALTER SEQUENCE company_idcompany_seq RESTART WITH 1;
-ALTER SEQUENCE user_iduser_seq RESTART WITH 1;
-ALTER SEQUENCE feedback_idfeedback_seq RESTART WITH 1;
-ALTER SEQUENCE status_idStatus_seq RESTART WITH 1;
-ALTER SEQUENCE reply_idreply_seq RESTART WITH 1;
+-- The inserts below reference each other by id, so they count up by 1 until the increment is restored at the end
+ALTER SEQUENCE category_idcategory_seq RESTART WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE company_idcompany_seq RESTART WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE user_iduser_seq RESTART WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE feedback_idfeedback_seq RESTART WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE status_idStatus_seq RESTART WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE reply_idreply_seq RESTART WITH 1 INCREMENT BY 1;
 
 -- Populate the category table (no dependencies)
 INSERT INTO category (typeCategory, colorCategory)
@@ -117,4 +118,12 @@ VALUES ('Obrigado pelo seu feedback!',
         7, 1),
        ('Revisão do processo de pagamento',
         'Estamos revisando nosso fluxo de pagamento baseado no feedback dos usuários. A simplificação é uma prioridade.',
-        9, 1);
\ No newline at end of file
+        9, 1);
+
+-- Restore the increment Hibernate allocates ids with (pooled-lo, allocationSize = 50)
+ALTER SEQUENCE category_idcategory_seq INCREMENT BY 50;
+ALTER SEQUENCE company_idcompany_seq INCREMENT BY 50;
+ALTER SEQUENCE user_iduser_seq INCREMENT BY 50;
+ALTER SEQUENCE feedback_idfeedback_seq INCREMENT BY 50;
+ALTER SEQUENCE status_idStatus_seq INCREMENT BY 50;
+ALTER SEQUENCE reply_idreply_seq INCREMENT BY 50;
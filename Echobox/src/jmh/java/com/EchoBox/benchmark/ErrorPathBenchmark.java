@@ -0,0 +1,93 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.exception.ErrorResponse;
+import com.EchoBox.exception.ErrorResponseWriter;
+import com.EchoBox.exception.GlobalExceptionHandler;
+import com.EchoBox.exception.MessageCatalogue;
+import com.EchoBox.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses per millisecond, the load a scanner probing unknown ids or endpoints puts on one core.
+ * The exception is thrown from {@code depth} frames down, roughly the servlet, security and MVC stack above a controller,
+ * caught, handled and written as JSON. unauthorized is the security entry point writing a 401 before any controller runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"150"})
+    private int depth;
+
+    private GlobalExceptionHandler handler;
+    private ErrorResponseWriter errorResponseWriter;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(true);
+
+        AcceptHeaderLocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
+        localeResolver.setDefaultLocale(Locale.of("pt"));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        errorResponseWriter = new ErrorResponseWriter(
+                new MessageCatalogue(messageSource, MessageCatalogue.bundledLocales("messages")),
+                new SimpleMeterRegistry(), localeResolver, objectMapper);
+        handler = new GlobalExceptionHandler(errorResponseWriter);
+
+        request = new MockHttpServletRequest("GET", "/feedbacks/424242");
+        LocaleContextHolder.setLocale(Locale.of("pt"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        ErrorResponse body;
+        try {
+            findFeedback(depth);
+            throw new IllegalStateException("unreachable");
+        } catch (ResourceNotFoundException e) {
+            body = handler.handleResourceNotFoundException(e, request).getBody();
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unauthorized() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        errorResponseWriter.write(request, response, ErrorCode.UNAUTHORIZED_ACCESS, HttpStatus.UNAUTHORIZED);
+        return response;
+    }
+
+    private static int findFeedback(int remaining) {
+        if (remaining == 0) {
+            throw new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND);
+        }
+        return findFeedback(remaining - 1) + 1;
+    }
+}
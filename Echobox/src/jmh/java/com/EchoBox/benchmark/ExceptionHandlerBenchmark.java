@@ -0,0 +1,88 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.exception.ErrorResponseWriter;
+import com.EchoBox.exception.GlobalExceptionHandler;
+import com.EchoBox.exception.MessageCatalogue;
+import com.EchoBox.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An error response from start to finish: the exception is created, resolved to a localized message and written as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    @Param({"pt", "en"})
+    private String language;
+
+    private GlobalExceptionHandler handler;
+    private MessageSource messageSource;
+    private MessageCatalogue messageCatalogue;
+    private Locale locale;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        // Same settings as the messageSource bean in InternationalizationConfig
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(true);
+        this.messageSource = messageSource;
+
+        messageCatalogue = new MessageCatalogue(messageSource, MessageCatalogue.bundledLocales("messages"));
+        locale = Locale.forLanguageTag(language);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler(
+                new ErrorResponseWriter(messageCatalogue, new SimpleMeterRegistry(), new AcceptHeaderLocaleResolver(), objectMapper));
+        request = new MockHttpServletRequest("GET", "/feedbacks/42");
+        LocaleContextHolder.setLocale(locale);
+    }
+
+    @TearDown
+    public void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Benchmark
+    public byte[] echoboxException() throws Exception {
+        return objectMapper.writeValueAsBytes(
+                handler.handleEchoboxException(new EchoboxException(ErrorCode.INVALID_INPUT), request).getBody());
+    }
+
+    @Benchmark
+    public byte[] resourceNotFound() throws Exception {
+        return objectMapper.writeValueAsBytes(
+                handler.handleResourceNotFoundException(new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND), request).getBody());
+    }
+
+    // The message lookup alone, as the handler did it before and as it does it now
+    @Benchmark
+    public String messageSourceLookup() {
+        return messageSource.getMessage(ErrorCode.INVALID_INPUT.getCode(), null, null, locale);
+    }
+
+    @Benchmark
+    public String messageCatalogueLookup() {
+        return messageCatalogue.getMessage(ErrorCode.INVALID_INPUT, null, null, locale);
+    }
+}
@@ -0,0 +1,112 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.EchoboxApplication;
+import com.EchoBox.model.JwtPrincipal;
+import com.EchoBox.service.JwtUtil;
+import com.EchoBox.service.ReferenceDataCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Rows written per second by POST /feedbacks/bulk versus one POST /feedbacks per row.
+ * Both go through the whole request path (security filters with a bearer token, JSON, validation, controller),
+ * in-process through MockMvc, so only the network is left out. Scores are in rows per second:
+ * bulkPost counts each of its items as one operation.
+ * Runs against the database of application.properties, which has to be up;
+ * the rows are written under a company of their own, deleted (with everything under it) on tear down.
+ * Not part of src/jmh/baseline.json, the scores depend on the database more than on the code.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FeedbackIngestBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private MockMvc mockMvc;
+
+    private int companyId;
+    private int categoryId;
+    private int statusId;
+    private String authorization;
+    private byte[] item;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EchoboxApplication.class)
+                // Printing every statement would cost singlePost more than the insert itself
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+
+        companyId = jdbcTemplate.queryForObject("INSERT INTO company (nameCompany, emailCompany, cnpjCompany) " +
+                "VALUES ('Ingest Benchmark', 'ingest.benchmark@example.com', '00000000000000') RETURNING idCompany", Integer.class);
+        int userId = jdbcTemplate.queryForObject("INSERT INTO \"user\" (emailUser, passwordUser, isAdminUser, fk_user_idCompany) " +
+                "VALUES ('ingest.benchmark@example.com', 'hash', true, ?) RETURNING idUser", Integer.class, companyId);
+        categoryId = jdbcTemplate.queryForObject("INSERT INTO category (typeCategory) VALUES ('Ingest Benchmark') RETURNING idCategory", Integer.class);
+        statusId = jdbcTemplate.queryForObject("INSERT INTO status (typeStatus) VALUES ('Ingest Benchmark') RETURNING idStatus", Integer.class);
+        context.getBean(ReferenceDataCache.class).reload();
+
+        authorization = "Bearer " + context.getBean(JwtUtil.class)
+                .generateToken(new JwtPrincipal(userId, companyId, "ingest.benchmark@example.com", true));
+        String json = String.format("{\"title\":\"Entrega\",\"review\":\"Chegou no prazo e bem embalado\"," +
+                "\"user\":%d,\"company\":%d,\"category\":%d,\"status\":%d}", userId, companyId, categoryId, statusId);
+        item = json.getBytes(StandardCharsets.UTF_8);
+        body = String.join("\n", Collections.nCopies(ITEMS, json)).getBytes(StandardCharsets.UTF_8);
+
+        // A rejected request would be measured as a very fast insert
+        if (singlePost() != 201 || bulkPost() != 200) {
+            throw new IllegalStateException("POST /feedbacks or /feedbacks/bulk was rejected");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM company WHERE idCompany = ?", companyId);
+        jdbcTemplate.update("DELETE FROM category WHERE idCategory = ?", categoryId);
+        jdbcTemplate.update("DELETE FROM status WHERE idStatus = ?", statusId);
+        context.close();
+    }
+
+    // What an import cost before the bulk endpoint: one request, one transaction, one INSERT per row
+    @Benchmark
+    public int singlePost() throws Exception {
+        return mockMvc.perform(post("/feedbacks")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(item))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public int bulkPost() throws Exception {
+        return mockMvc.perform(post("/feedbacks/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andReturn().getResponse().getStatus();
+    }
+}
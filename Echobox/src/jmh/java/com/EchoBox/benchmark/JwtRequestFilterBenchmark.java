@@ -0,0 +1,79 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.repository.RevokedTokenRepository;
+import com.EchoBox.service.JwtRequestFilter;
+import com.EchoBox.service.JwtUtil;
+import com.EchoBox.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request through JwtRequestFilter, from the Authorization header to the authenticated security context.
+ * With stateless=false the user lookup is an in-memory stub, so the database round trip is not included.
+ * The revocation list holds 10,000 other tokens, so the check runs against a populated Bloom filter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    @Param({"true", "false"})
+    private boolean stateless;
+
+    private JwtRequestFilter jwtRequestFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil("mySecretKey123456789012345678901234567890123456789012345678901234567890");
+        UserDetails userDetails = new User("admin@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(
+                Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry(), 100_000, 0.01, Duration.ofSeconds(30));
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        for (int i = 0; i < 10_000; i++) {
+            tokenRevocationService.revoke(UUID.randomUUID().toString(), expiration);
+        }
+
+        jwtRequestFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(jwtRequestFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtRequestFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtRequestFilter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(jwtRequestFilter, "statelessAuthentication", stateless);
+
+        request = new MockHttpServletRequest("GET", "/feedbacks");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(userDetails, true, 1, 1));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        jwtRequestFilter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
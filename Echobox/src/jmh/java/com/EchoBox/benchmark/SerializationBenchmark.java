@@ -0,0 +1,69 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.model.Feedback;
+import com.EchoBox.model.Reply;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the feedback and reply list responses, foreign keys go through the @JsonProperty id accessors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Feedback> feedbacks;
+    private List<Reply> replies;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot configures its ObjectMapper from
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        feedbacks = new ArrayList<>(size);
+        replies = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Feedback feedback = new Feedback();
+            feedback.setId(i);
+            feedback.setTitle("Entrega atrasada " + i);
+            feedback.setReview("O pedido chegou com três dias de atraso e sem nenhum aviso da transportadora.");
+            feedback.setUserId(i % 7 + 1);
+            feedback.setCompanyId(i % 3 + 1);
+            feedback.setCategoryId(i % 5 + 1);
+            feedback.setStatusId(i % 4 + 1);
+            feedbacks.add(feedback);
+
+            Reply reply = new Reply();
+            reply.setId(i);
+            reply.setTitle("Estamos verificando");
+            reply.setReview("Obrigado pelo aviso, já entramos em contato com a transportadora.");
+            reply.setFeedbackId(i);
+            reply.setUserId(1);
+            reply.setCreatedDate(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            replies.add(reply);
+        }
+    }
+
+    @Benchmark
+    public byte[] feedbackList() throws Exception {
+        return objectMapper.writeValueAsBytes(feedbacks);
+    }
+
+    @Benchmark
+    public byte[] replyList() throws Exception {
+        return objectMapper.writeValueAsBytes(replies);
+    }
+}
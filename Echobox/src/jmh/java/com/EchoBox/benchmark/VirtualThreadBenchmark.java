@@ -0,0 +1,96 @@
+package com.EchoBox.benchmark;
+
+import com.EchoBox.EchoboxApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the default profile (Tomcat's 200 platform threads) versus the virtual profile
+ * (one virtual thread per request), for requests that borrow a connection from the application's own Hikari pool.
+ * The application context is started with the profile under test, so each side runs with its configured pool:
+ * Hikari's default of 10 connections, or the 50 of application-virtual.properties.
+ * Each operation is a burst of concurrentRequests requests, so requests per second = score * concurrentRequests.
+ * Workloads:
+ * - jdbc: a 5 ms query (pg_sleep), a typical Postgres round trip, the case virtual threads are meant for
+ * - pinned: the same query inside synchronized, which pins the carrier thread on JDK 21
+ * Runs against the database of application.properties, which has to be up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    // Tomcat's default server.tomcat.threads.max
+    private static final int PLATFORM_THREADS = 200;
+    private static final String QUERY = "SELECT pg_sleep(0.005)";
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"jdbc", "pinned"})
+    private String workload;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService executor;
+    private Runnable request;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(EchoboxApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("virtual".equals(threads)) {
+            application.profiles("virtual");
+        }
+        context = application.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Stands in for Tomcat's request threads under each profile
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        request = switch (workload) {
+            case "jdbc" -> () -> jdbcTemplate.execute(QUERY);
+            // An uncontended monitor per request: only the pinning costs anything, not the lock itself
+            case "pinned" -> () -> {
+                synchronized (Thread.currentThread()) {
+                    jdbcTemplate.execute(QUERY);
+                }
+            };
+            default -> throw new IllegalArgumentException(workload);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public void burst() throws Exception {
+        List<Future<?>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(executor.submit(request));
+        }
+        for (Future<?> response : responses) {
+            response.get();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.EchoBox.config;
 
+import com.EchoBox.exception.MessageCatalogue;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,8 @@ import java.util.Locale;
 @Configuration
 public class InternationalizationConfig implements WebMvcConfigurer {
 
+    private static final String BASENAME = "messages";
+
     @Bean
     public LocaleResolver localeResolver() {
         AcceptHeaderLocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
@@ -29,12 +32,18 @@ public class InternationalizationConfig implements WebMvcConfigurer {
     @Bean
     public MessageSource messageSource() {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
-        messageSource.setBasename("classpath:messages");
+        messageSource.setBasename("classpath:" + BASENAME);
         messageSource.setDefaultEncoding("UTF-8");
         messageSource.setFallbackToSystemLocale(true);
         return messageSource;
     }
 
+    // Error messages resolved from the bundles above once, GlobalExceptionHandler reads them from here
+    @Bean
+    public MessageCatalogue messageCatalogue(MessageSource messageSource) {
+        return new MessageCatalogue(messageSource, MessageCatalogue.bundledLocales(BASENAME));
+    }
+
     @Bean
     public LocaleChangeInterceptor localeChangeInterceptor() {
         LocaleChangeInterceptor lci = new LocaleChangeInterceptor();
@@ -0,0 +1,87 @@
+package com.EchoBox.config;
+
+import com.EchoBox.service.JwtKeys;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads the JWT keys once at startup.
+ * With RS256 or EdDSA the kid of a key is its file name without the extension, so a key is rotated by publishing
+ * its .pub file on every node first, then pointing jwt.private-key at the new private key.
+ * HS256 tokens are rejected in these modes unless jwt.accept-legacy-hs256 is set, and then only until jwt.accept-legacy-hs256-until.
+ */
+@Configuration
+public class JwtKeysConfig {
+
+    // jwt.secret shipped in application.properties, public with the repository, so tokens signed with it can be forged by anyone
+    public static final String COMMITTED_SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    @Bean
+    public JwtKeys jwtKeys(@Value("${jwt.algorithm:HS256}") String algorithm,
+                           @Value("${jwt.secret:}") String secret,
+                           @Value("${jwt.private-key:}") String privateKeyLocation,
+                           @Value("${jwt.public-keys:}") String publicKeysLocation,
+                           @Value("${jwt.accept-legacy-hs256:false}") boolean acceptLegacyHs256,
+                           @Value("${jwt.accept-legacy-hs256-until:}") String legacyHs256Until) throws IOException, GeneralSecurityException {
+        if (algorithm.equals("HS256")) {
+            return JwtKeys.hmac(secret);
+        }
+
+        SecretKey legacySecretKey = null;
+        Instant legacyUntil = null;
+        if (acceptLegacyHs256) {
+            if (secret.isBlank() || secret.equals(COMMITTED_SECRET)) {
+                throw new IllegalStateException("jwt.accept-legacy-hs256 requires the deployment's own jwt.secret, not the committed default");
+            }
+            if (legacyHs256Until.isBlank()) {
+                throw new IllegalStateException("jwt.accept-legacy-hs256 requires jwt.accept-legacy-hs256-until");
+            }
+            legacySecretKey = JwtKeys.secretKey(secret);
+            legacyUntil = Instant.parse(legacyHs256Until);
+        }
+
+        SignatureAlgorithm signatureAlgorithm = switch (algorithm) {
+            case "RS256" -> Jwts.SIG.RS256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Unsupported jwt.algorithm " + algorithm);
+        };
+        String keyAlgorithm = algorithm.equals("RS256") ? "RSA" : "EdDSA";
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        for (Resource resource : resolver.getResources(publicKeysLocation + "*.pub")) {
+            publicKeys.put(keyId(resource), JwtKeys.readPublicKey(resource.getContentAsString(StandardCharsets.UTF_8), keyAlgorithm));
+        }
+
+        String kid = null;
+        PrivateKey privateKey = null;
+        if (!privateKeyLocation.isBlank()) {
+            Resource resource = resolver.getResource(privateKeyLocation);
+            kid = keyId(resource);
+            privateKey = JwtKeys.readPrivateKey(resource.getContentAsString(StandardCharsets.UTF_8), keyAlgorithm);
+        }
+
+        return JwtKeys.asymmetric(signatureAlgorithm, kid, privateKey, publicKeys, legacySecretKey, legacyUntil);
+    }
+
+    private static String keyId(Resource resource) {
+        return StringUtils.stripFilenameExtension(resource.getFilename());
+    }
+}
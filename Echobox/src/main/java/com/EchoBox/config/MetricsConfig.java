@@ -0,0 +1,20 @@
+package com.EchoBox.config;
+
+import com.EchoBox.service.JwtUtil;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the application's own caches and counters with Micrometer.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Publishes cache.gets{result=hit|miss}, cache.evictions and cache.size for the verified token cache
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(JwtUtil jwtUtil) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, jwtUtil.getVerifiedTokens(), "jwt.verified-tokens");
+    }
+}
@@ -0,0 +1,59 @@
+package com.EchoBox.config;
+
+import com.EchoBox.model.CursorPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+
+/**
+ * Records how many rows each list endpoint returns (echobox.response.rows).
+ * Tagged with the same uri and method as http.server.requests, so latency and payload size can be read side by side.
+ */
+@ControllerAdvice
+public class ResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseMetricsAdvice(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Integer rows = null;
+        if (body instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (body instanceof CursorPage<?> page && page.getItems() != null) {
+            rows = page.getItems().size();
+        }
+
+        if (rows != null && request instanceof ServletServerHttpRequest servletRequest) {
+            Object pattern = servletRequest.getServletRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("echobox.response.rows")
+                    .baseUnit("rows")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .tag("method", request.getMethod().name())
+                    .serviceLevelObjectives(1, 10, 50, 100, 500, 1000)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return body;
+    }
+}
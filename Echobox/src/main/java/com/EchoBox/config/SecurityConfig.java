@@ -1,10 +1,17 @@
 package com.EchoBox.config;
 
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.exception.ErrorResponseWriter;
+import com.EchoBox.service.BoundedPasswordEncoder;
 import com.EchoBox.service.JwtRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,8 +21,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
 
-import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -25,34 +33,65 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ErrorResponseWriter errorResponseWriter;
+
+    // Port of the internal actuator connector, -1 when the actuator is served on the public port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/users/login", "/users/register").permitAll()
+                        .requestMatchers("/users/login", "/users/register", "/users/token/refresh").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Scrapes on the internal management port need no token, on the public port the metrics are admin only
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // The NDJSON export commits its response on another thread while this one is still unwinding the filters,
+                // writing the security headers before the chain keeps the two from changing the headers at the same time
+                .headers(headers -> headers.addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+                    @Override
+                    public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                        filter.setShouldWriteHeadersEagerly(true);
+                        return filter;
+                    }
+                }))
                 .exceptionHandling(exceptions -> exceptions
-                        .authenticationEntryPoint((request, response, authException) -> {
-                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                            response.setContentType("application/json");
-                            response.getWriter().write("{\"errorCode\":\"ERR_9000\",\"message\":\"Unauthorized access - authentication required\",\"status\":401}");
-                        })
-                        .accessDeniedHandler((request, response, accessDeniedException) -> {
-                            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                            response.setContentType("application/json");
-                            response.getWriter().write("{\"errorCode\":\"ERR_9003\",\"message\":\"Insufficient privileges to access this resource\",\"status\":403}");
-                        })
+                        // TOKEN_EXPIRED or INVALID_TOKEN when a bearer token was sent but rejected by the filter
+                        .authenticationEntryPoint((request, response, authException) ->
+                                errorResponseWriter.write(request, response,
+                                        request.getAttribute(JwtRequestFilter.TOKEN_ERROR_ATTRIBUTE) instanceof ErrorCode tokenError
+                                                ? tokenError : ErrorCode.UNAUTHORIZED_ACCESS,
+                                        HttpStatus.UNAUTHORIZED))
+                        .accessDeniedHandler((request, response, accessDeniedException) ->
+                                errorResponseWriter.write(request, response, ErrorCode.INSUFFICIENT_PRIVILEGES, HttpStatus.FORBIDDEN))
                 );
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    // Used by AuthenticationManager.authenticate and UserService, so logins and registrations never hash on the request thread
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.threads:0}") int threads,
+                                           @Value("${password-hashing.queue-capacity:16}") int queueCapacity,
+                                           @Value("${password-hashing.timeout:PT5S}") Duration timeout,
+                                           @Value("${server.tomcat.threads.max:200}") int requestThreads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // Every running or queued hash parks a request thread, if they could take all of them nothing else would be served
+        if (poolSize + queueCapacity >= requestThreads) {
+            throw new IllegalStateException("password-hashing.threads + password-hashing.queue-capacity (" + (poolSize + queueCapacity)
+                    + ") must stay below server.tomcat.threads.max (" + requestThreads + ")");
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
@@ -4,7 +4,13 @@ import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.exception.ResourceNotFoundException;
 import com.EchoBox.model.Category;
 import com.EchoBox.repository.CategoryRepository;
+import com.EchoBox.service.ReferenceDataCache;
+import com.EchoBox.util.PatchRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -27,9 +33,13 @@ public class CategoryController {
 
     // You can just use @Autowired here, but it's bad practice
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectMapper objectMapper;
 
-    public CategoryController(CategoryRepository categoryRepository) {
+    public CategoryController(CategoryRepository categoryRepository, ReferenceDataCache referenceDataCache, ObjectMapper objectMapper) {
         this.categoryRepository = categoryRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.objectMapper = objectMapper;
     }
 
     // ############### POST OPERATION ###############
@@ -51,6 +61,7 @@ public class CategoryController {
 
     public ResponseEntity<Category> save(@Valid @RequestBody Category category) {
         Category savedCategory = categoryRepository.save(category);
+        referenceDataCache.categories().put(savedCategory);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
     }
 
@@ -64,9 +75,9 @@ public class CategoryController {
             @ApiResponse(responseCode = "500", description = "Failed to retrieve category list")
     })
 
-    // This is just a built-in function that does a "SELECT * FROM category"
+    // Served from the in-memory copy of the table, the database is only read at startup and on periodic reloads
     public List<Category> findAll() {
-        return categoryRepository.findAll();
+        return referenceDataCache.categories().findAll();
     }
 
     // ############### DELETE OPERATION ###############
@@ -80,10 +91,10 @@ public class CategoryController {
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!categoryRepository.existsById(id)) {
+        if (categoryRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.CATEGORY_NOT_FOUND);
         }
-        categoryRepository.deleteById(id);
+        referenceDataCache.categories().evict(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -91,18 +102,35 @@ public class CategoryController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a category", description = "Updates the category with the specified ID")
+    @Operation(summary = "Replaces a category", description = "Replaces every field of the category with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored category"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    public ResponseEntity<Category> update(@PathVariable("id") Integer id, @RequestBody Category category) {
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.CATEGORY_NOT_FOUND);
-        }
-        category.setId(id);
-        Category updatedCategory = categoryRepository.save(category);
-        return ResponseEntity.ok(updatedCategory);
+    public ResponseEntity<Category> update(@PathVariable("id") Integer id, @Valid @RequestBody Category category) {
+        Category updated = categoryRepository.replaceById(id, category)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.CATEGORY_NOT_FOUND));
+        referenceDataCache.categories().put(updated);
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a category", description = "Updates only the fields present in the body of the category with the specified ID, color sent as null is cleared")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored category"),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ResponseEntity<Category> patch(@PathVariable("id") Integer id,
+                                          @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(schema = @Schema(implementation = Category.class)))
+                                          @RequestBody JsonNode body) {
+        Category updated = categoryRepository.updateById(id, PatchRequest.of(body, Category.class, objectMapper))
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.CATEGORY_NOT_FOUND));
+        referenceDataCache.categories().put(updated);
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
@@ -115,7 +143,7 @@ public class CategoryController {
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
     public ResponseEntity<Category> findById(@PathVariable("id") Integer id) {
-        return categoryRepository.findById(id) // The findById method functions like an if statement
+        return referenceDataCache.categories().findById(id) // The findById method functions like an if statement
                 .map(ResponseEntity::ok) // This is the method reference for a lambda function
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -68,10 +68,9 @@ public class CompanyController {
             @ApiResponse(responseCode = "404", description = "Company not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!companyRepository.existsById(id)) {
+        if (companyRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.COMPANY_NOT_FOUND);
         }
-        companyRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -79,18 +78,31 @@ public class CompanyController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a company", description = "Updates the company with the specified ID")
+    @Operation(summary = "Replaces a company", description = "Replaces every field of the company with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored company"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Company not found")
     })
-    public ResponseEntity<Company> update(@PathVariable("id") Integer id, @RequestBody Company company) {
-        if (!companyRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.COMPANY_NOT_FOUND);
-        }
-        company.setId(id);
-        Company updatedCompany = companyRepository.save(company);
-        return ResponseEntity.ok(updatedCompany);
+    public ResponseEntity<Company> update(@PathVariable("id") Integer id, @Valid @RequestBody Company company) {
+        Company updated = companyRepository.replaceById(id, company)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.COMPANY_NOT_FOUND));
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a company", description = "Updates only the fields present in the body of the company with the specified ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored company"),
+            @ApiResponse(responseCode = "404", description = "Company not found")
+    })
+    public ResponseEntity<Company> patch(@PathVariable("id") Integer id, @RequestBody Company company) {
+        Company updated = companyRepository.updateById(id, company)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.COMPANY_NOT_FOUND));
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
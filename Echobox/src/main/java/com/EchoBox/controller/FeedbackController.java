@@ -1,20 +1,47 @@
 package com.EchoBox.controller;
 
+import com.EchoBox.exception.EchoboxException;
 import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.exception.ResourceNotFoundException;
+import com.EchoBox.model.BulkDeleteResponse;
+import com.EchoBox.model.BulkIngestResponse;
+import com.EchoBox.model.CursorPage;
 import com.EchoBox.model.Feedback;
+import com.EchoBox.model.FeedbackAuthor;
+import com.EchoBox.model.FeedbackRollup;
+import com.EchoBox.model.FeedbackSearchResult;
+import com.EchoBox.model.FeedbackSummary;
+import com.EchoBox.model.FeedbackThread;
+import com.EchoBox.model.Reply;
+import com.EchoBox.model.ReplySummary;
 import com.EchoBox.repository.FeedbackRepository;
+import com.EchoBox.repository.ReplyRepository;
+import com.EchoBox.service.FeedbackBulkService;
+import com.EchoBox.service.FeedbackExportService;
+import com.EchoBox.service.ReferenceDataCache;
+import com.EchoBox.util.CursorPaginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // ############### CRUD OPERATIONS ###############
 
@@ -26,9 +53,21 @@ public class FeedbackController {
     // ############### FEEDBACK CONSTRUCTOR ###############
 
     private final FeedbackRepository feedbackRepository;
+    private final CursorPaginator cursorPaginator;
+    private final FeedbackExportService feedbackExportService;
+    private final ReferenceDataCache referenceDataCache;
+    private final FeedbackBulkService feedbackBulkService;
+    private final ReplyRepository replyRepository;
 
-    public FeedbackController(FeedbackRepository feedbackRepository) {
+    public FeedbackController(FeedbackRepository feedbackRepository, CursorPaginator cursorPaginator,
+                              FeedbackExportService feedbackExportService, ReferenceDataCache referenceDataCache,
+                              FeedbackBulkService feedbackBulkService, ReplyRepository replyRepository) {
         this.feedbackRepository = feedbackRepository;
+        this.replyRepository = replyRepository;
+        this.cursorPaginator = cursorPaginator;
+        this.feedbackExportService = feedbackExportService;
+        this.referenceDataCache = referenceDataCache;
+        this.feedbackBulkService = feedbackBulkService;
     }
 
     // ############### POST OPERATION ###############
@@ -41,10 +80,26 @@ public class FeedbackController {
             @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
     public ResponseEntity<Feedback> save(@Valid @RequestBody Feedback feedback) {
+        validateReferences(feedback);
         Feedback savedFeedback = feedbackRepository.save(feedback);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedFeedback);
     }
 
+    // ############### BULK POST OPERATION ###############
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Creates feedbacks in bulk", description = "Creates every valid feedback of a JSON array or NDJSON body and reports the outcome of each item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Items processed, see the result of each item"),
+            @ApiResponse(responseCode = "413", description = "More items than feedback.bulk.max-items, nothing was created")
+    })
+
+    // The body is parsed as a stream, so only the validated items are held in memory, never the raw body
+    public ResponseEntity<BulkIngestResponse> saveAll(InputStream body) throws IOException {
+        return ResponseEntity.ok(feedbackBulkService.ingest(body));
+    }
+
     // ############### GET ALL OPERATION ###############
 
     @GetMapping
@@ -54,8 +109,163 @@ public class FeedbackController {
             @ApiResponse(responseCode = "200", description = "Feedback list retrieved successfully"),
             @ApiResponse(responseCode = "500", description = "Failed to retrieve feedback list")
     })
-    public List<Feedback> findAll() {
-        return feedbackRepository.findAll();
+    public List<FeedbackSummary> findAll() {
+        return feedbackRepository.findAllSummaries();
+    }
+
+    // ############### GET PAGE OPERATION ###############
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Gets a page of feedbacks", description = "Retrieves feedbacks ordered by ID, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feedback page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+
+    // The cursor is the nextCursor returned by the previous page, leave it empty to get the first page
+    // Seeking on the id keeps every page as cheap as the first one, no matter how deep the client scrolls
+    public CursorPage<FeedbackSummary> findPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", required = false) Integer size) {
+        int pageSize = cursorPaginator.resolveSize(size);
+        int afterId = cursor == null ? 0 : cursorPaginator.decodeId(cursor);
+        List<FeedbackSummary> rows = feedbackRepository.findSummariesAfter(afterId, Limit.of(pageSize + 1));
+        return cursorPaginator.toPage(rows, pageSize, feedback -> new Object[]{feedback.id()});
+    }
+
+    // ############### SEARCH OPERATION ###############
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Searches feedbacks", description = "Full-text search over feedback titles and reviews, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing query, invalid cursor or page size")
+    })
+
+    // The query accepts web search syntax ("quoted phrases", -excluded words, or)
+    // Words are stemmed with the language of the request (Accept-Language), english or portuguese by default
+    public CursorPage<FeedbackSearchResult> search(@RequestParam("q") String query,
+                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                   @RequestParam(value = "size", required = false) Integer size) {
+        if (query.isBlank()) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT);
+        }
+        int pageSize = cursorPaginator.resolveSize(size);
+
+        float afterRank = Float.MAX_VALUE;
+        int afterId = Integer.MAX_VALUE;
+        if (cursor != null) {
+            String[] keys = cursorPaginator.decode(cursor, 2);
+            try {
+                afterRank = Float.parseFloat(keys[0]);
+                afterId = Integer.parseInt(keys[1]);
+            } catch (NumberFormatException e) {
+                throw new EchoboxException(ErrorCode.INVALID_INPUT, e);
+            }
+        }
+
+        List<FeedbackSearchResult> rows = "en".equals(LocaleContextHolder.getLocale().getLanguage())
+                ? feedbackRepository.searchEnglish(query, afterRank, afterId, pageSize + 1)
+                : feedbackRepository.searchPortuguese(query, afterRank, afterId, pageSize + 1);
+        return cursorPaginator.toPage(rows, pageSize, result -> new Object[]{result.getRank(), result.getId()});
+    }
+
+    // ############### GET REPLIES OPERATION ###############
+
+    @GetMapping("/{id}/replies")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Gets a page of replies of a feedback", description = "Retrieves the replies of the feedback with the specified ID, oldest first, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reply page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+            @ApiResponse(responseCode = "404", description = "Feedback not found")
+    })
+
+    // The feedback is only looked up when there are no replies, to tell an empty thread from a missing feedback
+    public CursorPage<ReplySummary> findReplies(@PathVariable("id") Integer id,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", required = false) Integer size) {
+        CursorPage<ReplySummary> page = replyPage(id, cursor, cursorPaginator.resolveSize(size));
+        if (page.getItems().isEmpty() && !feedbackRepository.existsById(id)) {
+            throw new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND);
+        }
+        return page;
+    }
+
+    // ############### GET THREAD OPERATION ###############
+
+    @GetMapping("/{id}/thread")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Gets a feedback thread", description = "Retrieves the feedback with the specified ID, the first page of its replies and their authors")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Thread retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page size"),
+            @ApiResponse(responseCode = "404", description = "Feedback not found")
+    })
+
+    // Two queries whatever the size of the thread: the feedback with its author, then the replies with theirs
+    public FeedbackThread findThread(@PathVariable("id") Integer id,
+                                     @RequestParam(value = "size", required = false) Integer size) {
+        int pageSize = cursorPaginator.resolveSize(size);
+        Feedback feedback = feedbackRepository.findThreadById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND));
+        List<Reply> rows = replyRepository.findThreadPageByFeedback(id, Limit.of(pageSize + 1));
+        CursorPage<Reply> replies = cursorPaginator.toPage(rows, pageSize, reply -> new Object[]{reply.getCreatedDate(), reply.getId()});
+
+        Map<Integer, FeedbackAuthor> authors = new LinkedHashMap<>();
+        authors.put(feedback.getUserId(), FeedbackAuthor.of(feedback.getUser()));
+        for (Reply reply : replies.getItems()) {
+            authors.computeIfAbsent(reply.getUserId(), userId -> FeedbackAuthor.of(reply.getUser()));
+        }
+        return new FeedbackThread(feedback, replies, new ArrayList<>(authors.values()));
+    }
+
+    private CursorPage<ReplySummary> replyPage(Integer feedbackId, String cursor, int pageSize) {
+        List<ReplySummary> rows;
+        if (cursor == null) {
+            rows = replyRepository.findFirstPageByFeedback(feedbackId, Limit.of(pageSize + 1));
+        } else {
+            String[] keys = cursorPaginator.decode(cursor, 2);
+            try {
+                rows = replyRepository.findPageByFeedback(feedbackId, LocalDateTime.parse(keys[0]),
+                        Integer.parseInt(keys[1]), Limit.of(pageSize + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new EchoboxException(ErrorCode.INVALID_INPUT, e);
+            }
+        }
+        return cursorPaginator.toPage(rows, pageSize, reply -> new Object[]{reply.createdDate(), reply.id()});
+    }
+
+    // ############### ROLLUP OPERATION ###############
+
+    @GetMapping("/rollup")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Counts feedbacks per company, category and status", description = "Retrieves the number of feedbacks of every company broken down by category and status, optionally for a single company")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollup retrieved successfully")
+    })
+
+    // Counted by a single grouped query, the response grows with the number of groups, not with the number of feedbacks
+    public List<FeedbackRollup> rollup(@RequestParam(value = "company", required = false) Integer companyId) {
+        return companyId == null ? feedbackRepository.rollup() : feedbackRepository.rollupByCompany(companyId);
+    }
+
+    // ############### EXPORT OPERATION ###############
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exports all feedbacks", description = "Streams every feedback as newline-delimited JSON, one feedback per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export started successfully")
+    })
+
+    // The body is written on an async thread while the rows are read, so nothing is built in memory first
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = feedbackExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     // ############### DELETE OPERATION ###############
@@ -68,29 +278,73 @@ public class FeedbackController {
             @ApiResponse(responseCode = "404", description = "Feedback not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!feedbackRepository.existsById(id)) {
+        if (feedbackRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND);
         }
-        feedbackRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
+    // ############### BULK DELETE OPERATION ###############
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Deletes feedbacks in bulk", description = "Deletes the feedbacks with the given IDs, or every feedback matching the company, category and status filters, together with their replies")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deleted successfully"),
+            @ApiResponse(responseCode = "400", description = "Neither IDs nor filters were given, or both were")
+    })
+
+    // A single set-based DELETE, nothing is loaded first and the replies are removed by the database cascade
+    public BulkDeleteResponse deleteAll(@RequestParam(value = "ids", required = false) List<Integer> ids,
+                                        @RequestParam(value = "company", required = false) Integer companyId,
+                                        @RequestParam(value = "category", required = false) Integer categoryId,
+                                        @RequestParam(value = "status", required = false) Integer statusId) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = companyId != null || categoryId != null || statusId != null;
+        if (byIds == byFilter) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT);
+        }
+        int deleted = byIds
+                ? feedbackRepository.removeByIdIn(ids.toArray(Integer[]::new))
+                : feedbackRepository.removeByFilter(companyId, categoryId, statusId);
+        return new BulkDeleteResponse(deleted);
+    }
+
     // ############### PUT OPERATION ###############
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a feedback", description = "Updates the feedback with the specified ID")
+    @Operation(summary = "Replaces a feedback", description = "Replaces every field of the feedback with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored feedback"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Feedback not found")
     })
-    public ResponseEntity<Feedback> update(@PathVariable("id") Integer id, @RequestBody Feedback feedback) {
-        if (!feedbackRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND);
+    public ResponseEntity<Feedback> update(@PathVariable("id") Integer id, @Valid @RequestBody Feedback feedback) {
+        if (feedback.getUserId() == null || feedback.getCompanyId() == null
+                || feedback.getCategoryId() == null || feedback.getStatusId() == null) {
+            throw new EchoboxException(ErrorCode.FEEDBACK_INVALID_DATA);
         }
-        feedback.setId(id);
-        Feedback updatedFeedback = feedbackRepository.save(feedback);
-        return ResponseEntity.ok(updatedFeedback);
+        validateReferences(feedback);
+        Feedback updated = feedbackRepository.replaceById(id, feedback)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND));
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a feedback", description = "Updates only the fields present in the body of the feedback with the specified ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored feedback"),
+            @ApiResponse(responseCode = "404", description = "Feedback not found")
+    })
+    public ResponseEntity<Feedback> patch(@PathVariable("id") Integer id, @RequestBody Feedback feedback) {
+        validateReferences(feedback);
+        Feedback updated = feedbackRepository.updateById(id, feedback)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND));
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
@@ -107,4 +361,16 @@ public class FeedbackController {
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND));
     }
+
+    // ############### HELPERS ###############
+
+    // Known categories and statuses are confirmed from memory, only unknown ids still go to the database
+    private void validateReferences(Feedback feedback) {
+        if (feedback.getCategoryId() != null && !referenceDataCache.categories().exists(feedback.getCategoryId())) {
+            throw new EchoboxException(ErrorCode.CATEGORY_NOT_FOUND);
+        }
+        if (feedback.getStatusId() != null && !referenceDataCache.statuses().exists(feedback.getStatusId())) {
+            throw new EchoboxException(ErrorCode.STATUS_NOT_FOUND);
+        }
+    }
 }
@@ -1,8 +1,10 @@
 package com.EchoBox.controller;
 
+import com.EchoBox.exception.EchoboxException;
 import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.exception.ResourceNotFoundException;
 import com.EchoBox.model.Reply;
+import com.EchoBox.model.ReplySummary;
 import com.EchoBox.repository.ReplyRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -54,8 +56,8 @@ public class ReplyController {
             @ApiResponse(responseCode = "200", description = "Reply list retrieved successfully"),
             @ApiResponse(responseCode = "500", description = "Failed to retrieve reply list")
     })
-    public List<Reply> findAll() {
-        return replyRepository.findAll();
+    public List<ReplySummary> findAll() {
+        return replyRepository.findAllSummaries();
     }
 
     // ############### DELETE OPERATION ###############
@@ -68,10 +70,9 @@ public class ReplyController {
             @ApiResponse(responseCode = "404", description = "Reply not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!replyRepository.existsById(id)) {
+        if (replyRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.REPLY_NOT_FOUND);
         }
-        replyRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -79,18 +80,34 @@ public class ReplyController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a reply", description = "Updates the reply with the specified ID")
+    @Operation(summary = "Replaces a reply", description = "Replaces every field of the reply with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored reply"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Reply not found")
     })
-    public ResponseEntity<Reply> update(@PathVariable("id") Integer id, @RequestBody Reply reply) {
-        if (!replyRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.REPLY_NOT_FOUND);
+    public ResponseEntity<Reply> update(@PathVariable("id") Integer id, @Valid @RequestBody Reply reply) {
+        if (reply.getFeedbackId() == null || reply.getUserId() == null) {
+            throw new EchoboxException(ErrorCode.REPLY_INVALID_DATA);
         }
-        reply.setId(id);
-        Reply updatedReply = replyRepository.save(reply);
-        return ResponseEntity.ok(updatedReply);
+        Reply updated = replyRepository.replaceById(id, reply)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.REPLY_NOT_FOUND));
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a reply", description = "Updates only the fields present in the body of the reply with the specified ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored reply"),
+            @ApiResponse(responseCode = "404", description = "Reply not found")
+    })
+    public ResponseEntity<Reply> patch(@PathVariable("id") Integer id, @RequestBody Reply reply) {
+        Reply updated = replyRepository.updateById(id, reply)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.REPLY_NOT_FOUND));
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
@@ -4,7 +4,13 @@ import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.exception.ResourceNotFoundException;
 import com.EchoBox.model.Status;
 import com.EchoBox.repository.StatusRepository;
+import com.EchoBox.service.ReferenceDataCache;
+import com.EchoBox.util.PatchRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,9 +32,13 @@ public class StatusController {
     // ############### STATUS CONSTRUCTOR ###############
 
     private final StatusRepository statusRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectMapper objectMapper;
 
-    public StatusController(StatusRepository statusRepository) {
+    public StatusController(StatusRepository statusRepository, ReferenceDataCache referenceDataCache, ObjectMapper objectMapper) {
         this.statusRepository = statusRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.objectMapper = objectMapper;
     }
 
     // ############### POST OPERATION ###############
@@ -42,6 +52,7 @@ public class StatusController {
     })
     public ResponseEntity<Status> save(@Valid @RequestBody Status status) {
         Status savedStatus = statusRepository.save(status);
+        referenceDataCache.statuses().put(savedStatus);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedStatus);
     }
 
@@ -55,7 +66,7 @@ public class StatusController {
             @ApiResponse(responseCode = "500", description = "Failed to retrieve status list")
     })
     public List<Status> findAll() {
-        return statusRepository.findAll();
+        return referenceDataCache.statuses().findAll();
     }
 
     // ############### DELETE OPERATION ###############
@@ -68,10 +79,10 @@ public class StatusController {
             @ApiResponse(responseCode = "404", description = "Status not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!statusRepository.existsById(id)) {
+        if (statusRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.STATUS_NOT_FOUND);
         }
-        statusRepository.deleteById(id);
+        referenceDataCache.statuses().evict(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -79,18 +90,35 @@ public class StatusController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a status", description = "Updates the status with the specified ID")
+    @Operation(summary = "Replaces a status", description = "Replaces every field of the status with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored status"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Status not found")
     })
-    public ResponseEntity<Status> update(@PathVariable("id") Integer id, @RequestBody Status status) {
-        if (!statusRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.STATUS_NOT_FOUND);
-        }
-        status.setId(id);
-        Status updatedStatus = statusRepository.save(status);
-        return ResponseEntity.ok(updatedStatus);
+    public ResponseEntity<Status> update(@PathVariable("id") Integer id, @Valid @RequestBody Status status) {
+        Status updated = statusRepository.replaceById(id, status)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.STATUS_NOT_FOUND));
+        referenceDataCache.statuses().put(updated);
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a status", description = "Updates only the fields present in the body of the status with the specified ID, color sent as null is cleared")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored status"),
+            @ApiResponse(responseCode = "404", description = "Status not found")
+    })
+    public ResponseEntity<Status> patch(@PathVariable("id") Integer id,
+                                          @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(schema = @Schema(implementation = Status.class)))
+                                          @RequestBody JsonNode body) {
+        Status updated = statusRepository.updateById(id, PatchRequest.of(body, Status.class, objectMapper))
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.STATUS_NOT_FOUND));
+        referenceDataCache.statuses().put(updated);
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
@@ -103,7 +131,7 @@ public class StatusController {
             @ApiResponse(responseCode = "404", description = "Status not found")
     })
     public ResponseEntity<Status> findById(@PathVariable("id") Integer id) {
-        return statusRepository.findById(id)
+        return referenceDataCache.statuses().findById(id)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.STATUS_NOT_FOUND));
     }
@@ -2,24 +2,34 @@ package com.EchoBox.controller;
 
 import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.exception.ResourceNotFoundException;
+import com.EchoBox.model.AuthenticatedUser;
 import com.EchoBox.model.AuthenticationRequest;
 import com.EchoBox.model.AuthenticationResponse;
+import com.EchoBox.model.RefreshTokenRequest;
 import com.EchoBox.model.User;
+import com.EchoBox.model.UserSummary;
 import com.EchoBox.repository.UserRepository;
 import com.EchoBox.service.JwtUtil;
+import com.EchoBox.service.RefreshTokenService;
+import com.EchoBox.service.TokenRevocationService;
 import com.EchoBox.service.UserService;
+import com.EchoBox.util.PatchRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -33,16 +43,22 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserRepository userRepository, AuthenticationManager authenticationManager, UserDetailsService userDetailsService, UserService userService, JwtUtil jwtUtil) {
+    public UserController(UserRepository userRepository, AuthenticationManager authenticationManager, UserService userService,
+                          JwtUtil jwtUtil, RefreshTokenService refreshTokenService, TokenRevocationService tokenRevocationService,
+                          ObjectMapper objectMapper) {
         this.userRepository = userRepository;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/register")
@@ -53,17 +69,45 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    @Operation(summary = "Authenticates a user and returns a JWT")
-    public ResponseEntity<?> createAuthenticationToken(@RequestBody AuthenticationRequest authenticationRequest) throws Exception {
-        authenticationManager.authenticate(
+    @Operation(summary = "Authenticates a user and returns a JWT with a refresh token")
+
+    // One user lookup and one password check, both inside authenticate, the token is minted from the returned principal
+    public ResponseEntity<AuthenticationResponse> createAuthenticationToken(@RequestBody AuthenticationRequest authenticationRequest) {
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(), authenticationRequest.getPassword())
         );
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getEmail());
-        final User user = userRepository.findByEmail(authenticationRequest.getEmail()).orElseThrow(() -> new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND));
-        final String jwt = jwtUtil.generateToken(userDetails, user.getIsAdmin());
+        final AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        final String jwt = jwtUtil.generateToken(user.toPrincipal());
+
+        return ResponseEntity.ok(new AuthenticationResponse(jwt, refreshTokenService.issue(user.getUserId())));
+    }
 
-        return ResponseEntity.ok(new AuthenticationResponse(jwt));
+    @PostMapping("/token/refresh")
+    @Operation(summary = "Exchanges a refresh token for a new JWT and refresh token", description = "Each refresh token is accepted once, reusing one revokes all tokens issued from the same login")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens renewed"),
+            @ApiResponse(responseCode = "401", description = "Unknown, expired or already used refresh token")
+    })
+    public ResponseEntity<AuthenticationResponse> refreshAuthenticationToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(refreshTokenService.rotate(refreshTokenRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revokes the caller's JWT", description = "When the body carries the refresh token, every token issued from the same login is revoked as well")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Logged out"),
+            @ApiResponse(responseCode = "401", description = "Missing, invalid or already revoked JWT")
+    })
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        // Only bearer tokens authenticate requests, so reaching here means the header holds one
+        String jwt = authorization.substring("Bearer ".length());
+        tokenRevocationService.revoke(jwtUtil.extractTokenId(jwt), jwtUtil.extractExpiration(jwt));
+        if (refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
     }
 
     // ############### POST OPERATION ###############
@@ -89,8 +133,8 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "User list retrieved successfully"),
             @ApiResponse(responseCode = "500", description = "Failed to retrieve user list")
     })
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public List<UserSummary> findAll() {
+        return userRepository.findAllSummaries();
     }
 
     // ############### DELETE OPERATION ###############
@@ -103,10 +147,9 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<Void> delete(@PathVariable("id") Integer id) {
-        if (!userRepository.existsById(id)) {
+        if (userRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND);
         }
-        userRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -114,18 +157,33 @@ public class UserController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Updates a user", description = "Updates the user with the specified ID")
+    @Operation(summary = "Replaces a user", description = "Replaces every field of the user with the specified ID, fields missing from the body are cleared")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored user"),
+            @ApiResponse(responseCode = "400", description = "A required field is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<User> update(@PathVariable("id") Integer id, @RequestBody User user) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND);
-        }
-        user.setId(id);
-        User updatedUser = userRepository.save(user);
-        return ResponseEntity.ok(updatedUser);
+    public ResponseEntity<User> update(@PathVariable("id") Integer id, @Valid @RequestBody User user) {
+        User updated = userService.replace(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND));
+        return ResponseEntity.ok(updated);
+    }
+
+    // ############### PATCH OPERATION ###############
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially updates a user", description = "Updates only the fields present in the body of the user with the specified ID, picture or company sent as null is cleared")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully, the body is the stored user"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<User> patch(@PathVariable("id") Integer id,
+                                      @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(schema = @Schema(implementation = User.class)))
+                                      @RequestBody JsonNode body) {
+        User updated = userService.update(id, PatchRequest.of(body, User.class, objectMapper))
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND));
+        return ResponseEntity.ok(updated);
     }
 
     // ############### GET BY ID OPERATION ###############
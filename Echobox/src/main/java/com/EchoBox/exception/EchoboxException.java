@@ -5,6 +5,9 @@ import lombok.Getter;
 /**
  * Base exception class for all business logic exceptions in the application.
  * Contains an error code for internationalization support.
+ * They signal expected outcomes (bad input, unknown ids) rather than bugs, so no stack trace is captured:
+ * filling one in walks every frame of the request (servlet, filters, controller) on each throw.
+ * When there is a cause, its own stack trace is kept.
  */
 @Getter
 public class EchoboxException extends RuntimeException {
@@ -13,25 +16,25 @@ public class EchoboxException extends RuntimeException {
     private final Object[] args;
 
     public EchoboxException(ErrorCode errorCode) {
-        super(errorCode.getCode());
+        super(errorCode.getCode(), null, false, false);
         this.errorCode = errorCode;
         this.args = null;
     }
 
     public EchoboxException(ErrorCode errorCode, Object... args) {
-        super(errorCode.getCode());
+        super(errorCode.getCode(), null, false, false);
         this.errorCode = errorCode;
         this.args = args;
     }
 
     public EchoboxException(ErrorCode errorCode, Throwable cause) {
-        super(errorCode.getCode(), cause);
+        super(errorCode.getCode(), cause, false, false);
         this.errorCode = errorCode;
         this.args = null;
     }
 
     public EchoboxException(ErrorCode errorCode, Throwable cause, Object... args) {
-        super(errorCode.getCode(), cause);
+        super(errorCode.getCode(), cause, false, false);
         this.errorCode = errorCode;
         this.args = args;
     }
@@ -15,6 +15,7 @@ public enum ErrorCode {
     INVALID_INPUT("ERR_1002"),
     RESOURCE_NOT_FOUND("ERR_1003"),
     RESOURCE_ALREADY_EXISTS("ERR_1004"),
+    TOO_MANY_ITEMS("ERR_1005"),
 
     // User errors (2000-2099)
     USER_NOT_FOUND("ERR_2000"),
@@ -53,7 +54,9 @@ public enum ErrorCode {
     UNAUTHORIZED_ACCESS("ERR_9000"),
     INVALID_TOKEN("ERR_9001"),
     TOKEN_EXPIRED("ERR_9002"),
-    INSUFFICIENT_PRIVILEGES("ERR_9003");
+    INSUFFICIENT_PRIVILEGES("ERR_9003"),
+    AUTHENTICATION_BUSY("ERR_9004"),
+    INVALID_REFRESH_TOKEN("ERR_9005");
 
     private final String code;
 
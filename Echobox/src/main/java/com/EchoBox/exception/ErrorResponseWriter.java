@@ -0,0 +1,83 @@
+package com.EchoBox.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.LocaleResolver;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Builds, counts and renders every error response, for GlobalExceptionHandler and for the Spring Security handlers.
+ * Security errors are raised in the filter chain, before any controller advice applies, so they are written here
+ * with the same ObjectMapper Spring MVC uses, which keeps their body identical to every other error.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private final MessageCatalogue messageCatalogue;
+    private final MeterRegistry meterRegistry;
+    private final LocaleResolver localeResolver;
+    private final ObjectWriter objectWriter;
+
+    public ErrorResponseWriter(MessageCatalogue messageCatalogue, MeterRegistry meterRegistry,
+                               LocaleResolver localeResolver, ObjectMapper objectMapper) {
+        this.messageCatalogue = messageCatalogue;
+        this.meterRegistry = meterRegistry;
+        this.localeResolver = localeResolver;
+        // Serializer for ErrorResponse resolved once instead of on every write
+        this.objectWriter = objectMapper.writerFor(ErrorResponse.class);
+    }
+
+    /**
+     * Error response with the message of errorCode in the given locale, defaultMessage when no bundle has one
+     */
+    public ErrorResponse build(ErrorCode errorCode, Object[] args, String defaultMessage, HttpStatus status, String path, Locale locale) {
+        return ErrorResponse.builder()
+            .errorCode(errorCode.getCode())
+            .message(messageCatalogue.getMessage(errorCode, args, defaultMessage, locale))
+            .status(status.value())
+            .path(path)
+            .build();
+    }
+
+    /**
+     * Count the error by code and status (echobox.errors) and wrap it in a response
+     */
+    public ResponseEntity<ErrorResponse> respond(ErrorResponse errorResponse, HttpStatus status) {
+        count(errorResponse, status);
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            // Rejected because of load rather than because of the request, so the client can retry shortly
+            return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+        }
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    /**
+     * Count the error and write it straight to the servlet response, for errors raised outside Spring MVC
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, ErrorCode errorCode, HttpStatus status) throws IOException {
+        ErrorResponse errorResponse = build(errorCode, null, null, status, request.getRequestURI(), localeResolver.resolveLocale(request));
+        count(errorResponse, status);
+
+        byte[] body = objectWriter.writeValueAsBytes(errorResponse);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void count(ErrorResponse errorResponse, HttpStatus status) {
+        meterRegistry.counter("echobox.errors",
+                "code", errorResponse.getErrorCode(),
+                "status", String.valueOf(status.value())).increment();
+    }
+}
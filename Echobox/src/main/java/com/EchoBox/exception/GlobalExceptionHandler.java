@@ -3,7 +3,6 @@ package com.EchoBox.exception;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,7 +13,6 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * Global exception handler for all controllers.
@@ -23,10 +21,10 @@ import java.util.Locale;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    private final MessageSource messageSource;
+    private final ErrorResponseWriter errorResponseWriter;
 
-    public GlobalExceptionHandler(MessageSource messageSource) {
-        this.messageSource = messageSource;
+    public GlobalExceptionHandler(ErrorResponseWriter errorResponseWriter) {
+        this.errorResponseWriter = errorResponseWriter;
     }
 
     /**
@@ -37,24 +35,8 @@ public class GlobalExceptionHandler {
             EchoboxException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-        String message = messageSource.getMessage(
-            ex.getErrorCode().getCode(),
-            ex.getArgs(),
-            ex.getMessage(),
-            locale
-        );
-
         HttpStatus status = determineHttpStatus(ex);
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ex.getErrorCode().getCode())
-            .message(message)
-            .status(status.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, status);
+        return respond(ex.getErrorCode(), ex.getArgs(), ex.getMessage(), status, request);
     }
 
     /**
@@ -65,22 +47,7 @@ public class GlobalExceptionHandler {
             ResourceNotFoundException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-        String message = messageSource.getMessage(
-            ex.getErrorCode().getCode(),
-            ex.getArgs(),
-            ex.getMessage(),
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ex.getErrorCode().getCode())
-            .message(message)
-            .status(HttpStatus.NOT_FOUND.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return respond(ex.getErrorCode(), ex.getArgs(), ex.getMessage(), HttpStatus.NOT_FOUND, request);
     }
 
     /**
@@ -91,8 +58,6 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-
         List<ErrorResponse.FieldError> fieldErrors = new ArrayList<>();
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             fieldErrors.add(ErrorResponse.FieldError.builder()
@@ -102,22 +67,7 @@ public class GlobalExceptionHandler {
                 .build());
         }
 
-        String message = messageSource.getMessage(
-            ErrorCode.VALIDATION_ERROR.getCode(),
-            null,
-            "Validation error",
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-            .message(message)
-            .status(HttpStatus.BAD_REQUEST.value())
-            .path(request.getRequestURI())
-            .fieldErrors(fieldErrors)
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respondWithFieldErrors(fieldErrors, request);
     }
 
     /**
@@ -128,8 +78,6 @@ public class GlobalExceptionHandler {
             ConstraintViolationException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-
         List<ErrorResponse.FieldError> fieldErrors = new ArrayList<>();
         for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
             fieldErrors.add(ErrorResponse.FieldError.builder()
@@ -139,22 +87,7 @@ public class GlobalExceptionHandler {
                 .build());
         }
 
-        String message = messageSource.getMessage(
-            ErrorCode.VALIDATION_ERROR.getCode(),
-            null,
-            "Validation error",
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-            .message(message)
-            .status(HttpStatus.BAD_REQUEST.value())
-            .path(request.getRequestURI())
-            .fieldErrors(fieldErrors)
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respondWithFieldErrors(fieldErrors, request);
     }
 
     /**
@@ -165,22 +98,8 @@ public class GlobalExceptionHandler {
             org.springframework.security.core.AuthenticationException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-        String message = messageSource.getMessage(
-            ErrorCode.UNAUTHORIZED_ACCESS.getCode(),
-            null,
-            "Unauthorized access - authentication required",
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ErrorCode.UNAUTHORIZED_ACCESS.getCode())
-            .message(message)
-            .status(HttpStatus.UNAUTHORIZED.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        return respond(ErrorCode.UNAUTHORIZED_ACCESS, null, "Unauthorized access - authentication required",
+            HttpStatus.UNAUTHORIZED, request);
     }
 
     /**
@@ -191,22 +110,8 @@ public class GlobalExceptionHandler {
             org.springframework.security.access.AccessDeniedException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-        String message = messageSource.getMessage(
-            ErrorCode.INSUFFICIENT_PRIVILEGES.getCode(),
-            null,
-            "Insufficient privileges to access this resource",
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ErrorCode.INSUFFICIENT_PRIVILEGES.getCode())
-            .message(message)
-            .status(HttpStatus.FORBIDDEN.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+        return respond(ErrorCode.INSUFFICIENT_PRIVILEGES, null, "Insufficient privileges to access this resource",
+            HttpStatus.FORBIDDEN, request);
     }
 
     /**
@@ -217,7 +122,6 @@ public class GlobalExceptionHandler {
             io.jsonwebtoken.JwtException ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
         ErrorCode errorCode = ErrorCode.INVALID_TOKEN;
 
         // Check if it's an expired token
@@ -225,21 +129,7 @@ public class GlobalExceptionHandler {
             errorCode = ErrorCode.TOKEN_EXPIRED;
         }
 
-        String message = messageSource.getMessage(
-            errorCode.getCode(),
-            null,
-            ex.getMessage(),
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(errorCode.getCode())
-            .message(message)
-            .status(HttpStatus.UNAUTHORIZED.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        return respond(errorCode, null, ex.getMessage(), HttpStatus.UNAUTHORIZED, request);
     }
 
     /**
@@ -250,22 +140,25 @@ public class GlobalExceptionHandler {
             Exception ex,
             HttpServletRequest request) {
 
-        Locale locale = LocaleContextHolder.getLocale();
-        String message = messageSource.getMessage(
-            ErrorCode.GENERIC_ERROR.getCode(),
-            null,
-            "An unexpected error occurred",
-            locale
-        );
-
-        ErrorResponse errorResponse = ErrorResponse.builder()
-            .errorCode(ErrorCode.GENERIC_ERROR.getCode())
-            .message(message)
-            .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-            .path(request.getRequestURI())
-            .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond(ErrorCode.GENERIC_ERROR, null, "An unexpected error occurred",
+            HttpStatus.INTERNAL_SERVER_ERROR, request);
+    }
+
+    /**
+     * Build the localized error response for the request and count it
+     */
+    private ResponseEntity<ErrorResponse> respond(ErrorCode errorCode, Object[] args, String defaultMessage,
+                                                  HttpStatus status, HttpServletRequest request) {
+        ErrorResponse errorResponse = errorResponseWriter.build(errorCode, args, defaultMessage, status,
+            request.getRequestURI(), LocaleContextHolder.getLocale());
+        return errorResponseWriter.respond(errorResponse, status);
+    }
+
+    private ResponseEntity<ErrorResponse> respondWithFieldErrors(List<ErrorResponse.FieldError> fieldErrors, HttpServletRequest request) {
+        ErrorResponse errorResponse = errorResponseWriter.build(ErrorCode.VALIDATION_ERROR, null, "Validation error",
+            HttpStatus.BAD_REQUEST, request.getRequestURI(), LocaleContextHolder.getLocale());
+        errorResponse.setFieldErrors(fieldErrors);
+        return errorResponseWriter.respond(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -274,6 +167,21 @@ public class GlobalExceptionHandler {
     private HttpStatus determineHttpStatus(EchoboxException ex) {
         ErrorCode errorCode = ex.getErrorCode();
 
+        // Password hashing pool saturated
+        if (errorCode == ErrorCode.AUTHENTICATION_BUSY) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+
+        // Bulk request over the item limit, none of its items were processed
+        if (errorCode == ErrorCode.TOO_MANY_ITEMS) {
+            return HttpStatus.PAYLOAD_TOO_LARGE;
+        }
+
+        // Unknown, expired or reused refresh token, the client has to log in again
+        if (errorCode == ErrorCode.INVALID_REFRESH_TOKEN) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+
         // Resource not found errors
         if (errorCode.getCode().endsWith("_NOT_FOUND")) {
             return HttpStatus.NOT_FOUND;
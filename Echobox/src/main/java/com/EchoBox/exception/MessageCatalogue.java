@@ -0,0 +1,91 @@
+package com.EchoBox.exception;
+
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Message of every ErrorCode in every bundled language, resolved once at startup into immutable tables.
+ * Error responses then cost one map lookup instead of a MessageSource resolution, which matters when bad clients
+ * or scanners produce 4xx responses in bulk.
+ * A locale without its own bundle gets the same fallback as the MessageSource: the system locale's language, then the base bundle.
+ */
+public class MessageCatalogue {
+
+    private final Map<String, Map<ErrorCode, Entry>> byLanguage;
+    private final Map<ErrorCode, Entry> fallback;
+
+    public MessageCatalogue(MessageSource messageSource, Collection<Locale> locales) {
+        Map<String, Map<ErrorCode, Entry>> tables = new HashMap<>();
+        for (Locale locale : locales) {
+            tables.put(locale.getLanguage(), table(messageSource, locale));
+        }
+        Map<ErrorCode, Entry> base = table(messageSource, Locale.ROOT);
+        this.byLanguage = Collections.unmodifiableMap(tables);
+        this.fallback = tables.getOrDefault(Locale.getDefault().getLanguage(), base);
+    }
+
+    /**
+     * Same contract as MessageSource.getMessage(code, args, defaultMessage, locale).
+     */
+    public String getMessage(ErrorCode errorCode, Object[] args, String defaultMessage, Locale locale) {
+        Map<ErrorCode, Entry> table = byLanguage.getOrDefault(locale.getLanguage(), fallback);
+        Entry entry = table.get(errorCode);
+        if (entry == null) {
+            return defaultMessage;
+        }
+        return entry.format(args);
+    }
+
+    /**
+     * Locales of the basename_xx.properties bundles on the classpath, e.g. [en, pt] for messages_en and messages_pt.
+     */
+    public static List<Locale> bundledLocales(String basename) {
+        try {
+            List<Locale> locales = new ArrayList<>();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:" + basename + "_*.properties")) {
+                String filename = resource.getFilename();
+                String suffix = filename.substring(basename.length() + 1, filename.length() - ".properties".length());
+                locales.add(Locale.forLanguageTag(suffix.replace('_', '-')));
+            }
+            return locales;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<ErrorCode, Entry> table(MessageSource messageSource, Locale locale) {
+        Map<ErrorCode, Entry> table = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            // Without arguments the MessageSource returns the raw text, the pattern used when arguments are given
+            String text = messageSource.getMessage(errorCode.getCode(), null, null, locale);
+            if (text != null) {
+                table.put(errorCode, new Entry(text, text.indexOf('{') >= 0 ? new MessageFormat(text, locale) : null));
+            }
+        }
+        return Collections.unmodifiableMap(table);
+    }
+
+    // MessageFormat is parsed once but isn't thread-safe, so each use formats with a clone
+    private record Entry(String text, MessageFormat format) {
+
+        String format(Object[] args) {
+            if (format == null || args == null || args.length == 0) {
+                return text;
+            }
+            return ((MessageFormat) format.clone()).format(args);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.EchoBox.model;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * User loaded by MyUserDetailsService, carrying the ids the token claims need.
+ * A login mints its token from this principal, so the user is looked up once, inside the AuthenticationManager.
+ */
+@Getter
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Integer userId;
+    private final Integer companyId;
+    private final boolean admin;
+
+    public AuthenticatedUser(User user, Collection<? extends GrantedAuthority> authorities) {
+        super(user.getEmail(), user.getPassword(), authorities);
+        this.userId = user.getId();
+        this.companyId = user.getCompanyId();
+        this.admin = Boolean.TRUE.equals(user.getIsAdmin());
+    }
+
+    public JwtPrincipal toPrincipal() {
+        return new JwtPrincipal(userId, companyId, getUsername(), admin);
+    }
+}
@@ -0,0 +1,16 @@
+package com.EchoBox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResponse {
+    private int created;
+    private int rejected;
+    private List<BulkItemResult> results;
+}
@@ -0,0 +1,32 @@
+package com.EchoBox.model;
+
+import com.EchoBox.exception.ErrorResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a bulk request, index is its position in the request body.
+ * Created items carry their new id, rejected items an error code and, for validation errors, the offending fields.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private int index;
+    private Integer id;
+    private String errorCode;
+    private List<ErrorResponse.FieldError> fieldErrors;
+
+    public static BulkItemResult created(int index, Integer id) {
+        return new BulkItemResult(index, id, null, null);
+    }
+
+    public static BulkItemResult rejected(int index, String errorCode, List<ErrorResponse.FieldError> fieldErrors) {
+        return new BulkItemResult(index, null, errorCode, fieldErrors);
+    }
+}
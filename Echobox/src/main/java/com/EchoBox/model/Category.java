@@ -12,7 +12,8 @@ public class Category {
 
     @Id
     // In theory GenerationType.AUTO should work, but it doesn't, so we use IDENTITY
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_idcategory_seq", allocationSize = 50)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY) // We need to make the ids read-only for auto-increment
     @Column(name = "idCategory")
     private Integer id;
@@ -6,14 +6,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
 @Table(name = "feedback")
+@NamedEntityGraph(name = "Feedback.author", attributeNodes = @NamedAttributeNode("user"))
 public class Feedback {
 
+    // Also used by FeedbackBulkService, which reserves ids from the same sequence in the same blocks
+    // The increment of the sequence (V3__pooled_sequences.sql) must be the same, the bulk service checks it at startup
+    public static final String ID_SEQUENCE = "feedback_idfeedback_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_seq")
+    @SequenceGenerator(name = "feedback_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     @Column(name = "idFeedback")
     private Integer id;
@@ -26,28 +35,38 @@ public class Feedback {
     @Column(name = "reviewFeedback", nullable = false, columnDefinition = "TEXT")
     private String review;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_feedback_idUser", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_feedback_idCompany", nullable = false)
     private Company company;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_feedback_idCategory", nullable = false)
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "fk_feedback_idStatus", nullable = false)
     @JsonIgnore
     private Status status;
 
     // ############### GETTERS AND SETTERS FOR FOREIGN KEYS ###############
 
+    // The associations are lazy, reading the id of an uninitialized proxy doesn't load it
+
     @JsonProperty("user")
     public Integer getUserId() {
         return user != null ? user.getId() : null;
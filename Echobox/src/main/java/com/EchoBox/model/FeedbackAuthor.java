@@ -0,0 +1,23 @@
+package com.EchoBox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Public profile of a user who wrote a feedback or a reply, the password never leaves the entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackAuthor {
+    private Integer id;
+    private String email;
+    private String picture;
+    private Boolean isAdmin;
+    private Integer company;
+
+    public static FeedbackAuthor of(User user) {
+        return new FeedbackAuthor(user.getId(), user.getEmail(), user.getPicture(), user.getIsAdmin(), user.getCompanyId());
+    }
+}
@@ -0,0 +1,19 @@
+package com.EchoBox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of feedbacks of one company with a given category and status.
+ * Ids use the same names as the feedback JSON, the labels come from /categories and /statuses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackRollup {
+    private Integer company;
+    private Integer category;
+    private Integer status;
+    private Long count;
+}
@@ -0,0 +1,16 @@
+package com.EchoBox.model;
+
+/**
+ * Feedback returned by the full-text search, with the foreign keys as plain ids (same shape as Feedback) plus its rank.
+ * Getter names match the column aliases of the native search queries.
+ */
+public interface FeedbackSearchResult {
+    Integer getId();
+    String getTitle();
+    String getReview();
+    Integer getUser();
+    Integer getCompany();
+    Integer getCategory();
+    Integer getStatus();
+    Float getRank();
+}
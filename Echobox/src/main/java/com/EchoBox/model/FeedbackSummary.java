@@ -0,0 +1,9 @@
+package com.EchoBox.model;
+
+/**
+ * Read-only row of the feedback list endpoints, selected straight into this record so no entity is managed.
+ * Serializes to the same JSON as Feedback.
+ */
+public record FeedbackSummary(Integer id, String title, String review,
+                              Integer user, Integer company, Integer category, Integer status) {
+}
@@ -0,0 +1,20 @@
+package com.EchoBox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A feedback with the first page of its replies and everyone who wrote them.
+ * Further replies are read from /feedbacks/{id}/replies with replies.nextCursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackThread {
+    private Feedback feedback;
+    private CursorPage<Reply> replies;
+    private List<FeedbackAuthor> authors;
+}
@@ -0,0 +1,31 @@
+package com.EchoBox.model;
+
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authenticated user as described by the claims of a signed JWT.
+ * It is built straight from the token, so authenticating a request with it needs no database lookup.
+ */
+@Value
+public class JwtPrincipal implements AuthenticatedPrincipal {
+
+    Integer userId;
+    Integer companyId;
+    String email;
+    boolean admin;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    // Same roles MyUserDetailsService grants, so @PreAuthorize rules behave the same in both modes
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(admin ? "ROLE_ADMIN" : "ROLE_USER"));
+    }
+}
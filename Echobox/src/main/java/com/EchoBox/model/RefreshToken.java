@@ -0,0 +1,45 @@
+package com.EchoBox.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One issued refresh token, only the SHA-256 of the opaque token is stored.
+ * All tokens obtained from the same login share a family, so reusing a rotated token revokes the whole chain.
+ */
+@Entity
+@Data
+@Table(name = "refresh_token")
+@NamedEntityGraph(name = "RefreshToken.user", attributeNodes = @NamedAttributeNode("user"))
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_idrefreshtoken_seq", allocationSize = 50)
+    @Column(name = "idRefreshToken")
+    private Long id;
+
+    @Column(name = "hashRefreshToken", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "familyRefreshToken", nullable = false)
+    private UUID family;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "fk_refreshToken_idUser", nullable = false)
+    private User user;
+
+    @Column(name = "expiresAtRefreshToken", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the token is exchanged, a used token presented again is a replay
+    @Column(name = "usedAtRefreshToken")
+    private LocalDateTime usedAt;
+}
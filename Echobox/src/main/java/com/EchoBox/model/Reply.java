@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,10 +15,12 @@ import java.time.LocalDateTime;
 @Entity
 @Data
 @Table(name = "reply")
+@NamedEntityGraph(name = "Reply.author", attributeNodes = @NamedAttributeNode("user"))
 public class Reply {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reply_seq")
+    @SequenceGenerator(name = "reply_seq", sequenceName = "reply_idreply_seq", allocationSize = 50)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     @Column(name = "idReply")
     private Integer id;
@@ -29,22 +33,28 @@ public class Reply {
     @Column(name = "reviewReply", nullable = false, columnDefinition = "TEXT")
     private String review;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_reply_idFeedback", nullable = false)
     private Feedback feedback;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_reply_idUser", nullable = false)
     private User user;
 
     @CreationTimestamp
-    @Column(name = "createdDate")
+    @Column(name = "createdDate", nullable = false)
     private LocalDateTime createdDate;
 
     // ############### GETTERS AND SETTERS FOR FOREIGN KEYS ###############
 
+    // The associations are lazy, reading the id of an uninitialized proxy doesn't load it
+
     @JsonProperty("feedback")
     public Integer getFeedbackId() {
         return feedback != null ? feedback.getId() : null;
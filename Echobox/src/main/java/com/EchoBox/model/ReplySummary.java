@@ -0,0 +1,11 @@
+package com.EchoBox.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the reply list endpoints, selected straight into this record so no entity is managed.
+ * Serializes to the same JSON as Reply.
+ */
+public record ReplySummary(Integer id, String title, String review, LocalDateTime createdDate,
+                           Integer user, Integer feedback) {
+}
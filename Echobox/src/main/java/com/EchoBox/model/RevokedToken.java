@@ -0,0 +1,28 @@
+package com.EchoBox.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * JWT revoked before its expiration, identified by its jti claim.
+ * The row only matters until the token would have expired anyway, after that it is purged.
+ */
+@Entity
+@Data
+@Table(name = "revoked_token")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jtiRevokedToken")
+    private UUID tokenId;
+
+    @Column(name = "expiresAtRevokedToken", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Database clock at insert, instances read new revocations by this column so their own clocks don't matter
+    @Column(name = "revokedAtRevokedToken", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime revokedAt;
+}
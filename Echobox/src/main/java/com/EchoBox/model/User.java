@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -13,7 +15,8 @@ import lombok.Data;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_iduser_seq", allocationSize = 50)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     @Column(name = "idUser")
     private Integer id;
@@ -22,23 +25,37 @@ public class User {
     @Column(name = "emailUser", nullable = false)
     private String email;
 
+    // Accepted in request bodies but never written to a response, not even as a hash
     @NotBlank
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "passwordUser", nullable = false, length = 64)
     private String password;
 
     @Column(name = "pictureUser")
     private String picture;
 
+    // Defaulted on insert rather than here, so a PATCH body without the flag leaves it unchanged instead of resetting it
     @Column(name = "isAdminUser", nullable = false)
-    private Boolean isAdmin = false;
+    private Boolean isAdmin;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JsonIgnore
     @JoinColumn(name = "fk_user_idCompany")
     private Company company;
 
+    @PrePersist
+    void defaultIsAdmin() {
+        if (isAdmin == null) {
+            isAdmin = false;
+        }
+    }
+
     // ############### GETTERS AND SETTERS FOR FOREIGN KEYS ###############
 
+    // The association is lazy, reading the id of an uninitialized proxy doesn't load it
+
     @JsonProperty("company")
     public Integer getCompanyId() {
         return company != null ? company.getId() : null;
@@ -0,0 +1,8 @@
+package com.EchoBox.model;
+
+/**
+ * Read-only row of the user list endpoint, selected straight into this record so no entity is managed.
+ * The password hash is never selected.
+ */
+public record UserSummary(Integer id, String email, String picture, Boolean isAdmin, Integer company) {
+}
@@ -1,9 +1,46 @@
 package com.EchoBox.repository;
 
 import com.EchoBox.model.Category;
+import com.EchoBox.util.PatchRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, a field missing from the body keeps its current value
+    // color is nullable: sent as null it is cleared, type is NOT NULL so a null keeps it
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE category SET " +
+            "typeCategory = COALESCE(CAST(:#{#patch.value().type} AS VARCHAR), typeCategory), " +
+            "colorCategory = CASE WHEN :#{#patch.has('color')} THEN CAST(:#{#patch.value().color} AS VARCHAR) ELSE colorCategory END " +
+            "WHERE idCategory = :id RETURNING *", nativeQuery = true)
+    Optional<Category> updateById(@Param("id") Integer id, @Param("patch") PatchRequest<Category> patch);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE category SET " +
+            "typeCategory = CAST(:#{#category.type} AS VARCHAR), " +
+            "colorCategory = CAST(:#{#category.color} AS VARCHAR) " +
+            "WHERE idCategory = :id RETURNING *", nativeQuery = true)
+    Optional<Category> replaceById(@Param("id") Integer id, @Param("category") Category category);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Category c WHERE c.id = :id")
+    int removeById(@Param("id") Integer id);
 }
@@ -2,8 +2,45 @@ package com.EchoBox.repository;
 
 import com.EchoBox.model.Company;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Integer> {
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, null fields keep their current value (every column is NOT NULL)
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE company SET " +
+            "nameCompany = COALESCE(CAST(:#{#company.name} AS VARCHAR), nameCompany), " +
+            "emailCompany = COALESCE(CAST(:#{#company.email} AS VARCHAR), emailCompany), " +
+            "cnpjCompany = COALESCE(CAST(:#{#company.cnpj} AS VARCHAR), cnpjCompany) " +
+            "WHERE idCompany = :id RETURNING *", nativeQuery = true)
+    Optional<Company> updateById(@Param("id") Integer id, @Param("company") Company company);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE company SET " +
+            "nameCompany = CAST(:#{#company.name} AS VARCHAR), " +
+            "emailCompany = CAST(:#{#company.email} AS VARCHAR), " +
+            "cnpjCompany = CAST(:#{#company.cnpj} AS VARCHAR) " +
+            "WHERE idCompany = :id RETURNING *", nativeQuery = true)
+    Optional<Company> replaceById(@Param("id") Integer id, @Param("company") Company company);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Company c WHERE c.id = :id")
+    int removeById(@Param("id") Integer id);
 }
@@ -1,9 +1,169 @@
 package com.EchoBox.repository;
 
 import com.EchoBox.model.Feedback;
+import com.EchoBox.model.FeedbackRollup;
+import com.EchoBox.model.FeedbackSearchResult;
+import com.EchoBox.model.FeedbackSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Integer> {
+
+    // ############### READ-ONLY PROJECTIONS ###############
+
+    // The list endpoints select only the returned columns into records: nothing is managed, snapshotted or flushed
+    // The reads below run in read-only transactions: Hibernate skips the flush and Postgres gets BEGIN READ ONLY
+
+    String SUMMARY_SELECT = "SELECT new com.EchoBox.model.FeedbackSummary(f.id, f.title, f.review, " +
+            "f.user.id, f.company.id, f.category.id, f.status.id) FROM Feedback f ";
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "ORDER BY f.id")
+    List<FeedbackSummary> findAllSummaries();
+
+    // Keyset pagination: seeks on the primary key index instead of using OFFSET
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "WHERE f.id > :afterId ORDER BY f.id")
+    List<FeedbackSummary> findSummariesAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    // Forward-only cursor used by the export, Postgres only streams with a fetch size inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SUMMARY_SELECT + "ORDER BY f.id")
+    Stream<FeedbackSummary> streamAllOrderById();
+
+    // Thread view: the feedback with its author in one SELECT
+    @Transactional(readOnly = true)
+    @EntityGraph("Feedback.author")
+    @Query("SELECT f FROM Feedback f WHERE f.id = :id")
+    Optional<Feedback> findThreadById(@Param("id") Integer id);
+
+    // ############### ROLLUP ###############
+
+    // One row per (company, category, status) group, the foreign key ids are read without joining the referenced tables
+    // idx_feedback_rollup covers the grouped columns, so Postgres can answer from the index alone
+
+    String ROLLUP_SELECT = "SELECT new com.EchoBox.model.FeedbackRollup(f.company.id, f.category.id, f.status.id, COUNT(f)) " +
+            "FROM Feedback f ";
+
+    String ROLLUP_GROUP = "GROUP BY f.company.id, f.category.id, f.status.id " +
+            "ORDER BY f.company.id, f.category.id, f.status.id";
+
+    @Transactional(readOnly = true)
+    @Query(ROLLUP_SELECT + ROLLUP_GROUP)
+    List<FeedbackRollup> rollup();
+
+    @Transactional(readOnly = true)
+    @Query(ROLLUP_SELECT + "WHERE f.company.id = :companyId " + ROLLUP_GROUP)
+    List<FeedbackRollup> rollupByCompany(@Param("companyId") Integer companyId);
+
+    // ############### FULL-TEXT SEARCH ###############
+
+    // Both queries match on the GIN indexed tsvector column of their language and page on (rank, id), highest rank first
+    // The first page passes Float.MAX_VALUE as afterRank so the keyset condition always holds
+
+    String SEARCH_COLUMNS = "SELECT f.idFeedback AS id, f.titleFeedback AS title, f.reviewFeedback AS review, " +
+            "f.fk_feedback_idUser AS \"user\", f.fk_feedback_idCompany AS company, " +
+            "f.fk_feedback_idCategory AS category, f.fk_feedback_idStatus AS status, ";
+
+    String SEARCH_PAGE = "ORDER BY rank DESC, f.idFeedback DESC LIMIT :limit";
+
+    @Transactional(readOnly = true)
+    @Query(value = SEARCH_COLUMNS + "ts_rank(f.searchPtFeedback, q) AS rank " +
+            "FROM feedback f, websearch_to_tsquery('portuguese', :query) q " +
+            "WHERE f.searchPtFeedback @@ q " +
+            "AND (ts_rank(f.searchPtFeedback, q), f.idFeedback) < (CAST(:afterRank AS REAL), :afterId) " +
+            SEARCH_PAGE, nativeQuery = true)
+    List<FeedbackSearchResult> searchPortuguese(@Param("query") String query,
+                                                @Param("afterRank") float afterRank,
+                                                @Param("afterId") int afterId,
+                                                @Param("limit") int limit);
+
+    @Transactional(readOnly = true)
+    @Query(value = SEARCH_COLUMNS + "ts_rank(f.searchEnFeedback, q) AS rank " +
+            "FROM feedback f, websearch_to_tsquery('english', :query) q " +
+            "WHERE f.searchEnFeedback @@ q " +
+            "AND (ts_rank(f.searchEnFeedback, q), f.idFeedback) < (CAST(:afterRank AS REAL), :afterId) " +
+            SEARCH_PAGE, nativeQuery = true)
+    List<FeedbackSearchResult> searchEnglish(@Param("query") String query,
+                                             @Param("afterRank") float afterRank,
+                                             @Param("afterId") int afterId,
+                                             @Param("limit") int limit);
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, null fields keep their current value (every column is NOT NULL)
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    // The generated search columns aren't mapped, so only the entity's columns are returned
+    @Transactional
+    @Query(value = "UPDATE feedback SET " +
+            "titleFeedback = COALESCE(CAST(:#{#feedback.title} AS VARCHAR), titleFeedback), " +
+            "reviewFeedback = COALESCE(CAST(:#{#feedback.review} AS TEXT), reviewFeedback), " +
+            "fk_feedback_idUser = COALESCE(CAST(:#{#feedback.userId} AS INTEGER), fk_feedback_idUser), " +
+            "fk_feedback_idCompany = COALESCE(CAST(:#{#feedback.companyId} AS INTEGER), fk_feedback_idCompany), " +
+            "fk_feedback_idCategory = COALESCE(CAST(:#{#feedback.categoryId} AS INTEGER), fk_feedback_idCategory), " +
+            "fk_feedback_idStatus = COALESCE(CAST(:#{#feedback.statusId} AS INTEGER), fk_feedback_idStatus) " +
+            "WHERE idFeedback = :id RETURNING idFeedback, titleFeedback, reviewFeedback, " +
+            "fk_feedback_idUser, fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus", nativeQuery = true)
+    Optional<Feedback> updateById(@Param("id") Integer id, @Param("feedback") Feedback feedback);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    // The generated search columns aren't mapped, so only the entity's columns are returned
+    @Transactional
+    @Query(value = "UPDATE feedback SET " +
+            "titleFeedback = CAST(:#{#feedback.title} AS VARCHAR), " +
+            "reviewFeedback = CAST(:#{#feedback.review} AS TEXT), " +
+            "fk_feedback_idUser = CAST(:#{#feedback.userId} AS INTEGER), " +
+            "fk_feedback_idCompany = CAST(:#{#feedback.companyId} AS INTEGER), " +
+            "fk_feedback_idCategory = CAST(:#{#feedback.categoryId} AS INTEGER), " +
+            "fk_feedback_idStatus = CAST(:#{#feedback.statusId} AS INTEGER) " +
+            "WHERE idFeedback = :id RETURNING idFeedback, titleFeedback, reviewFeedback, " +
+            "fk_feedback_idUser, fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus", nativeQuery = true)
+    Optional<Feedback> replaceById(@Param("id") Integer id, @Param("feedback") Feedback feedback);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    // deleteById loads the entity before removing it, this is one DELETE returning the number of deleted rows
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Feedback f WHERE f.id = :id")
+    int removeById(@Param("id") Integer id);
+
+    // ############### BULK DELETE ###############
+
+    // Set-based, one statement whatever the number of rows, replies go with their feedback through ON DELETE CASCADE
+    // The ids are bound as a single array parameter, so the statement doesn't change with the length of the list
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM feedback WHERE idFeedback = ANY(:ids)", nativeQuery = true)
+    int removeByIdIn(@Param("ids") Integer[] ids);
+
+    // A null filter matches every row, the controller requires at least one
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Feedback f WHERE (:companyId IS NULL OR f.company.id = :companyId) " +
+            "AND (:categoryId IS NULL OR f.category.id = :categoryId) " +
+            "AND (:statusId IS NULL OR f.status.id = :statusId)")
+    int removeByFilter(@Param("companyId") Integer companyId,
+                       @Param("categoryId") Integer categoryId,
+                       @Param("statusId") Integer statusId);
 }
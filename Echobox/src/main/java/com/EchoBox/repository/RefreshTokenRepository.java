@@ -0,0 +1,44 @@
+package com.EchoBox.repository;
+
+import com.EchoBox.model.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // The token and its user in one SELECT, the user is needed to mint the next access token
+    @EntityGraph("RefreshToken.user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Claims the token for a single exchange, returns 0 when it was already used
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken r SET r.usedAt = :usedAt WHERE r.id = :id AND r.usedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.family = :family")
+    int removeFamily(@Param("family") UUID family);
+
+    // Every family of the user, after a change of password or role
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    int removeByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int removeExpired(@Param("now") LocalDateTime now);
+}
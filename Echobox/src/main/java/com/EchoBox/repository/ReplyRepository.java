@@ -1,9 +1,93 @@
 package com.EchoBox.repository;
 
 import com.EchoBox.model.Reply;
+import com.EchoBox.model.ReplySummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReplyRepository extends JpaRepository<Reply, Integer> {
+
+    // ############### READ-ONLY PROJECTIONS ###############
+
+    // The list endpoints select only the returned columns into records: nothing is managed, snapshotted or flushed
+    // The reads below run in read-only transactions: Hibernate skips the flush and Postgres gets BEGIN READ ONLY
+
+    String SUMMARY_SELECT = "SELECT new com.EchoBox.model.ReplySummary(r.id, r.title, r.review, r.createdDate, " +
+            "r.user.id, r.feedback.id) FROM Reply r ";
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "ORDER BY r.id")
+    List<ReplySummary> findAllSummaries();
+
+    // ############### REPLIES OF A FEEDBACK ###############
+
+    // Oldest first, keyset paginated on (createdDate, id) over idx_reply_feedback_created
+
+    String FEEDBACK_PAGE_WHERE = "WHERE r.feedback.id = :feedbackId ";
+
+    String FEEDBACK_PAGE_ORDER = "ORDER BY r.createdDate, r.id";
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + FEEDBACK_PAGE_WHERE + FEEDBACK_PAGE_ORDER)
+    List<ReplySummary> findFirstPageByFeedback(@Param("feedbackId") Integer feedbackId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + FEEDBACK_PAGE_WHERE +
+            "AND (r.createdDate > :afterDate OR (r.createdDate = :afterDate AND r.id > :afterId)) " +
+            FEEDBACK_PAGE_ORDER)
+    List<ReplySummary> findPageByFeedback(@Param("feedbackId") Integer feedbackId,
+                                          @Param("afterDate") LocalDateTime afterDate,
+                                          @Param("afterId") Integer afterId,
+                                          Limit limit);
+
+    // Thread view: the same first page as entities, with the authors fetched in the same query instead of one SELECT per reply
+    @Transactional(readOnly = true)
+    @EntityGraph("Reply.author")
+    @Query("SELECT r FROM Reply r " + FEEDBACK_PAGE_WHERE + FEEDBACK_PAGE_ORDER)
+    List<Reply> findThreadPageByFeedback(@Param("feedbackId") Integer feedbackId, Limit limit);
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, null fields keep their current value (every column is NOT NULL)
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE reply SET " +
+            "titleReply = COALESCE(CAST(:#{#reply.title} AS VARCHAR), titleReply), " +
+            "reviewReply = COALESCE(CAST(:#{#reply.review} AS TEXT), reviewReply), " +
+            "fk_reply_idFeedback = COALESCE(CAST(:#{#reply.feedbackId} AS INTEGER), fk_reply_idFeedback), " +
+            "fk_reply_idUser = COALESCE(CAST(:#{#reply.userId} AS INTEGER), fk_reply_idUser) " +
+            "WHERE idReply = :id RETURNING *", nativeQuery = true)
+    Optional<Reply> updateById(@Param("id") Integer id, @Param("reply") Reply reply);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    // createdDate is set by the server on insert and is not part of the representation a client replaces
+    @Transactional
+    @Query(value = "UPDATE reply SET " +
+            "titleReply = CAST(:#{#reply.title} AS VARCHAR), " +
+            "reviewReply = CAST(:#{#reply.review} AS TEXT), " +
+            "fk_reply_idFeedback = CAST(:#{#reply.feedbackId} AS INTEGER), " +
+            "fk_reply_idUser = CAST(:#{#reply.userId} AS INTEGER) " +
+            "WHERE idReply = :id RETURNING *", nativeQuery = true)
+    Optional<Reply> replaceById(@Param("id") Integer id, @Param("reply") Reply reply);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Reply r WHERE r.id = :id")
+    int removeById(@Param("id") Integer id);
 }
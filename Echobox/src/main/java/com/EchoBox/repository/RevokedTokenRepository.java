@@ -0,0 +1,33 @@
+package com.EchoBox.repository;
+
+import com.EchoBox.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    // Revoking the same token twice (e.g. a repeated logout) is a no-op
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_token (jtiRevokedToken, expiresAtRevokedToken, revokedAtRevokedToken) VALUES (:tokenId, :expiresAt, now()) " +
+            "ON CONFLICT (jtiRevokedToken) DO NOTHING", nativeQuery = true)
+    int revoke(@Param("tokenId") UUID tokenId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int removeExpired(@Param("now") LocalDateTime now);
+}
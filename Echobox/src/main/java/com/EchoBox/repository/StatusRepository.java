@@ -1,9 +1,46 @@
 package com.EchoBox.repository;
 
 import com.EchoBox.model.Status;
+import com.EchoBox.util.PatchRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Repository
 public interface StatusRepository extends JpaRepository<Status, Integer> {
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, a field missing from the body keeps its current value
+    // color is nullable: sent as null it is cleared, type is NOT NULL so a null keeps it
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE status SET " +
+            "typeStatus = COALESCE(CAST(:#{#patch.value().type} AS VARCHAR), typeStatus), " +
+            "colorStatus = CASE WHEN :#{#patch.has('color')} THEN CAST(:#{#patch.value().color} AS VARCHAR) ELSE colorStatus END " +
+            "WHERE idStatus = :id RETURNING *", nativeQuery = true)
+    Optional<Status> updateById(@Param("id") Integer id, @Param("patch") PatchRequest<Status> patch);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE status SET " +
+            "typeStatus = CAST(:#{#status.type} AS VARCHAR), " +
+            "colorStatus = CAST(:#{#status.color} AS VARCHAR) " +
+            "WHERE idStatus = :id RETURNING *", nativeQuery = true)
+    Optional<Status> replaceById(@Param("id") Integer id, @Param("status") Status status);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Status s WHERE s.id = :id")
+    int removeById(@Param("id") Integer id);
 }
@@ -1,12 +1,64 @@
 package com.EchoBox.repository;
 
 import com.EchoBox.model.User;
+import com.EchoBox.util.PatchRequest;
+import com.EchoBox.model.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
-    Optional<User> findByEmail(String email);
+    // Case-insensitive, served by the unique index on lower(emailUser)
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    // Read-only projection for the list endpoint, the password column is never selected, in a read-only transaction
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.EchoBox.model.UserSummary(u.id, u.email, u.picture, u.isAdmin, u.company.id) " +
+            "FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+
+    // ############### SINGLE-STATEMENT UPDATE ###############
+
+    // One UPDATE without a prior SELECT, a field missing from the body keeps its current value
+    // picture and company are nullable: sent as null they are cleared, a null on a NOT NULL column keeps it
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    @Transactional
+    @Query(value = "UPDATE \"user\" SET " +
+            "emailUser = COALESCE(CAST(:#{#patch.value().email} AS VARCHAR), emailUser), " +
+            "passwordUser = COALESCE(CAST(:#{#patch.value().password} AS VARCHAR), passwordUser), " +
+            "pictureUser = CASE WHEN :#{#patch.has('picture')} THEN CAST(:#{#patch.value().picture} AS VARCHAR) ELSE pictureUser END, " +
+            "isAdminUser = COALESCE(CAST(:#{#patch.value().isAdmin} AS BOOLEAN), isAdminUser), " +
+            "fk_user_idCompany = CASE WHEN :#{#patch.has('company')} THEN CAST(:#{#patch.value().companyId} AS INTEGER) ELSE fk_user_idCompany END " +
+            "WHERE idUser = :id RETURNING *", nativeQuery = true)
+    Optional<User> updateById(@Param("id") Integer id, @Param("patch") PatchRequest<User> patch);
+
+    // ############### SINGLE-STATEMENT REPLACE ###############
+
+    // PUT: every column is assigned, a field missing from the body is stored as null
+    // The same statement returns the stored row (RETURNING), empty when no row has this id
+    // The password is expected already hashed, see UserService.replace
+    @Transactional
+    @Query(value = "UPDATE \"user\" SET " +
+            "emailUser = CAST(:#{#user.email} AS VARCHAR), " +
+            "passwordUser = CAST(:#{#user.password} AS VARCHAR), " +
+            "pictureUser = CAST(:#{#user.picture} AS VARCHAR), " +
+            "isAdminUser = COALESCE(CAST(:#{#user.isAdmin} AS BOOLEAN), false), " +
+            "fk_user_idCompany = CAST(:#{#user.companyId} AS INTEGER) " +
+            "WHERE idUser = :id RETURNING *", nativeQuery = true)
+    Optional<User> replaceById(@Param("id") Integer id, @Param("user") User user);
+
+    // ############### SINGLE-STATEMENT DELETE ###############
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int removeById(@Param("id") Integer id);
 }
@@ -0,0 +1,119 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing on a dedicated, bounded pool instead of the request threads.
+ * BCrypt is deliberately slow and CPU-bound, so a login burst on the request threads starves every other endpoint.
+ * At most {@code threads} hashes run at once and {@code queueCapacity} more may wait, anything beyond that,
+ * or a hash that isn't done within {@code timeout}, fails fast with AUTHENTICATION_BUSY (503).
+ * The calling request thread still blocks for the queue wait plus the hash, up to {@code timeout},
+ * so up to {@code threads + queueCapacity} request threads can be parked here: keep that well below the servlet pool.
+ * A caller that gives up takes its queued hash out of the queue, nobody is left waiting for its result.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued, executor.queue.remaining, executor.active and the time tasks wait in the queue (executor.idle)
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+        this.timeoutMillis = timeout.toMillis();
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.rejected = Counter.builder("echobox.password.hash.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(future);
+            throw busy();
+        } catch (InterruptedException e) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // BCrypt never checks for interrupts, so a hash that already started runs to the end whatever happens here,
+    // but one still waiting is cancelled and purged from the queue, freeing its slot without ever running
+    private void abandon(Future<?> future) {
+        future.cancel(false);
+        pool.purge();
+    }
+
+    private EchoboxException busy() {
+        rejected.increment();
+        return new EchoboxException(ErrorCode.AUTHENTICATION_BUSY);
+    }
+
+    // Time spent hashing only, the time spent waiting for a thread is reported by executor.idle
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("echobox.password.hash")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
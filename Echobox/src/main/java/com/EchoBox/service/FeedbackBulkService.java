@@ -0,0 +1,251 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.exception.ErrorResponse;
+import com.EchoBox.model.BulkIngestResponse;
+import com.EchoBox.model.BulkItemResult;
+import com.EchoBox.model.Feedback;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk feedback ingestion.
+ * Items are read one at a time from a JSON array or NDJSON body and validated, then written in chunks.
+ * The whole body is read before anything is written, so a body with more than max-items items is rejected
+ * as a whole with TOO_MANY_ITEMS rather than half imported; at most max-items rows are held in memory.
+ * Each chunk is a single multi-row INSERT in its own transaction, so a failure only affects the chunk it happened in.
+ * The users and companies of a chunk are looked up first, so an unknown one rejects its items instead of failing the INSERT.
+ * Ids are reserved up front from the feedback sequence, so the created ids can be reported without reading them back.
+ */
+@Service
+public class FeedbackBulkService {
+
+    private static final String INSERT = "INSERT INTO feedback (idFeedback, titleFeedback, reviewFeedback, fk_feedback_idUser, " +
+            "fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?)";
+
+    // Which of the chunk's user and company ids exist, one array parameter each instead of one query per row
+    static final String EXISTING_USERS = "SELECT idUser FROM \"user\" WHERE idUser = ANY(?)";
+    static final String EXISTING_COMPANIES = "SELECT idCompany FROM company WHERE idCompany = ANY(?)";
+
+    // Same pooled-lo scheme as the Feedback entity, each nextval reserves ID_BLOCK_SIZE ids starting at the value returned
+    static final String NEXT_ID_BLOCKS = "SELECT nextval('" + Feedback.ID_SEQUENCE + "') FROM generate_series(1, ?)";
+    static final String SEQUENCE_INCREMENT = "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?";
+    private static final int ID_BLOCK_SIZE = Feedback.ID_ALLOCATION_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectReader reader;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public FeedbackBulkService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               Validator validator,
+                               ReferenceDataCache referenceDataCache,
+                               ObjectMapper objectMapper,
+                               @Value("${feedback.bulk.chunk-size:500}") int chunkSize,
+                               @Value("${feedback.bulk.max-items:10000}") int maxItems) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.referenceDataCache = referenceDataCache;
+        this.reader = objectMapper.readerFor(Feedback.class);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    // The reserved blocks are only disjoint from the ids Hibernate allocates when the sequence steps by exactly one block
+    @PostConstruct
+    void verifyIdBlockSize() {
+        Long increment = jdbcTemplate.queryForObject(SEQUENCE_INCREMENT, Long.class, Feedback.ID_SEQUENCE);
+        if (increment == null || increment != ID_BLOCK_SIZE) {
+            throw new IllegalStateException(Feedback.ID_SEQUENCE + " is incremented by " + increment
+                    + ", the feedback ids are allocated in blocks of " + ID_BLOCK_SIZE);
+        }
+    }
+
+    public BulkIngestResponse ingest(InputStream body) throws IOException {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<PendingRow> pending = new ArrayList<>();
+
+        // readValues iterates over the elements of a root array, or over the root values of an NDJSON body
+        try (MappingIterator<Feedback> items = reader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                Feedback feedback;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    feedback = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser can't resync after malformed input, everything before this point is still written
+                    results.add(BulkItemResult.rejected(index, ErrorCode.INVALID_INPUT.getCode(), null));
+                    break;
+                }
+
+                if (index >= maxItems) {
+                    // Nothing has been written yet, the client can split the body and send it again
+                    throw new EchoboxException(ErrorCode.TOO_MANY_ITEMS, String.valueOf(maxItems));
+                }
+
+                BulkItemResult rejection = validate(index, feedback);
+                if (rejection != null) {
+                    results.add(rejection);
+                } else {
+                    pending.add(new PendingRow(index, feedback));
+                }
+                index++;
+            }
+        }
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            flush(pending.subList(from, Math.min(from + chunkSize, pending.size())), results);
+        }
+
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        int created = (int) results.stream().filter(result -> result.getId() != null).count();
+        return new BulkIngestResponse(created, results.size() - created, results);
+    }
+
+    private BulkItemResult validate(int index, Feedback feedback) {
+        List<ErrorResponse.FieldError> fieldErrors = new ArrayList<>();
+        for (ConstraintViolation<Feedback> violation : validator.validate(feedback)) {
+            fieldErrors.add(ErrorResponse.FieldError.builder()
+                    .field(violation.getPropertyPath().toString())
+                    .message(violation.getMessage())
+                    .rejectedValue(violation.getInvalidValue())
+                    .build());
+        }
+        requireId(fieldErrors, "user", feedback.getUserId());
+        requireId(fieldErrors, "company", feedback.getCompanyId());
+        requireId(fieldErrors, "category", feedback.getCategoryId());
+        requireId(fieldErrors, "status", feedback.getStatusId());
+        if (!fieldErrors.isEmpty()) {
+            return BulkItemResult.rejected(index, ErrorCode.FEEDBACK_INVALID_DATA.getCode(), fieldErrors);
+        }
+
+        if (!referenceDataCache.categories().exists(feedback.getCategoryId())) {
+            return BulkItemResult.rejected(index, ErrorCode.CATEGORY_NOT_FOUND.getCode(), null);
+        }
+        if (!referenceDataCache.statuses().exists(feedback.getStatusId())) {
+            return BulkItemResult.rejected(index, ErrorCode.STATUS_NOT_FOUND.getCode(), null);
+        }
+        return null;
+    }
+
+    private static void requireId(List<ErrorResponse.FieldError> fieldErrors, String field, Integer id) {
+        if (id == null) {
+            fieldErrors.add(ErrorResponse.FieldError.builder()
+                    .field(field)
+                    .message("must not be null")
+                    .build());
+        }
+    }
+
+    private void flush(List<PendingRow> chunk, List<BulkItemResult> results) {
+        List<PendingRow> rows = withKnownReferences(chunk, results);
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = reserveIds(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows, ids));
+            for (int i = 0; i < rows.size(); i++) {
+                results.add(BulkItemResult.created(rows.get(i).index(), ids.get(i)));
+            }
+        } catch (DataAccessException e) {
+            // A reference deleted since the lookup fails the whole statement, retry row by row to find it
+            // The rolled back INSERT used none of its ids, each row takes its own again instead of reserving more
+            for (int i = 0; i < rows.size(); i++) {
+                PendingRow row = rows.get(i);
+                List<Integer> rowId = List.of(ids.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), rowId));
+                    results.add(BulkItemResult.created(row.index(), rowId.get(0)));
+                } catch (DataAccessException rowError) {
+                    results.add(BulkItemResult.rejected(row.index(), ErrorCode.FEEDBACK_INVALID_DATA.getCode(), null));
+                }
+            }
+        }
+    }
+
+    // Rejects the rows whose user or company doesn't exist, and returns the others
+    private List<PendingRow> withKnownReferences(List<PendingRow> chunk, List<BulkItemResult> results) {
+        Set<Integer> users = existing(EXISTING_USERS, chunk, Feedback::getUserId);
+        Set<Integer> companies = existing(EXISTING_COMPANIES, chunk, Feedback::getCompanyId);
+
+        List<PendingRow> known = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (!users.contains(row.feedback().getUserId())) {
+                results.add(BulkItemResult.rejected(row.index(), ErrorCode.USER_NOT_FOUND.getCode(), null));
+            } else if (!companies.contains(row.feedback().getCompanyId())) {
+                results.add(BulkItemResult.rejected(row.index(), ErrorCode.COMPANY_NOT_FOUND.getCode(), null));
+            } else {
+                known.add(row);
+            }
+        }
+        return known;
+    }
+
+    private Set<Integer> existing(String query, List<PendingRow> chunk, Function<Feedback, Integer> reference) {
+        Integer[] ids = chunk.stream().map(row -> reference.apply(row.feedback())).distinct().toArray(Integer[]::new);
+        return new HashSet<>(jdbcTemplate.queryForList(query, Integer.class, (Object) ids));
+    }
+
+    private void insert(List<PendingRow> rows, List<Integer> ids) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows.size() * (ROW.length() + 2));
+        sql.append(INSERT);
+        Object[] args = new Object[rows.size() * 7];
+        int arg = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+            Feedback feedback = rows.get(i).feedback();
+            args[arg++] = ids.get(i);
+            args[arg++] = feedback.getTitle();
+            args[arg++] = feedback.getReview();
+            args[arg++] = feedback.getUserId();
+            args[arg++] = feedback.getCompanyId();
+            args[arg++] = feedback.getCategoryId();
+            args[arg++] = feedback.getStatusId();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private List<Integer> reserveIds(int count) {
+        List<Integer> blocks = jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Integer.class, (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(blocks.get(i / ID_BLOCK_SIZE) + i % ID_BLOCK_SIZE);
+        }
+        return ids;
+    }
+
+    private record PendingRow(int index, Feedback feedback) {
+    }
+}
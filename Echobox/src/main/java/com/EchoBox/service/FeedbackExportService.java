@@ -0,0 +1,61 @@
+package com.EchoBox.service;
+
+import com.EchoBox.model.FeedbackSummary;
+import com.EchoBox.repository.FeedbackRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every feedback as newline-delimited JSON (one object per line) straight from a database cursor.
+ * Memory use does not depend on the table size: rows are read as projections, so the persistence context never grows.
+ */
+@Service
+public class FeedbackExportService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final ObjectWriter writer;
+    private final int batchSize;
+
+    public FeedbackExportService(FeedbackRepository feedbackRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${feedback.export.batch-size:1000}") int batchSize) {
+        this.feedbackRepository = feedbackRepository;
+        // Flushing after every row would turn each line into its own network write
+        this.writer = objectMapper.writerFor(FeedbackSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<FeedbackSummary> rows = feedbackRepository.streamAllOrderById();
+             JsonGenerator generator = writer.createGenerator(out)) {
+            // The response stream belongs to the servlet container, and lines are separated by us, not by Jackson
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<FeedbackSummary> iterator = rows.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                written++;
+
+                // Flush the first row right away so the client starts receiving data, then once per batch
+                if (written == 1 || written % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.EchoBox.service;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Signing and verification keys of the JWTs, decoded once at startup together with a thread-safe parser.
+ * HS256 signs and verifies with the shared jwt.secret.
+ * RS256 and EdDSA sign with this node's private key, stamping its kid in the header, and verify with the public key of the token's kid.
+ * A node holding only the public keys can verify tokens but not issue them.
+ * While switching from HS256, tokens signed with the secret can be accepted until a fixed instant, never indefinitely.
+ */
+public final class JwtKeys {
+
+    private final UnaryOperator<JwtBuilder> signer;
+    private final JwtParser parser;
+
+    private JwtKeys(UnaryOperator<JwtBuilder> signer, SecretKey secretKey, Instant secretKeyUntil, Map<String, PublicKey> publicKeys) {
+        this.signer = signer;
+        this.parser = Jwts.parser().keyLocator(new KeyLocator(secretKey, secretKeyUntil, publicKeys)).build();
+    }
+
+    public static JwtKeys hmac(String secret) {
+        SecretKey secretKey = secretKey(secret);
+        return new JwtKeys(builder -> builder.signWith(secretKey, Jwts.SIG.HS256), secretKey, Instant.MAX, Map.of());
+    }
+
+    /**
+     * Key ring for RS256 or EdDSA tokens.
+     * The private key and kid may be null on nodes that only verify.
+     * A non-null legacySecretKey accepts HS256 tokens issued before the switch, but only until legacyUntil.
+     */
+    public static JwtKeys asymmetric(SignatureAlgorithm algorithm, String kid, PrivateKey privateKey,
+                                     Map<String, PublicKey> publicKeys, SecretKey legacySecretKey, Instant legacyUntil) {
+        if (legacySecretKey != null && legacyUntil == null) {
+            throw new IllegalStateException("HS256 tokens can only be accepted until a given instant");
+        }
+        UnaryOperator<JwtBuilder> signer;
+        if (privateKey == null) {
+            signer = builder -> {
+                throw new IllegalStateException("No private key configured, this node can only verify tokens");
+            };
+        } else {
+            if (!publicKeys.containsKey(kid)) {
+                throw new IllegalStateException("No public key for the signing key id " + kid);
+            }
+            signer = builder -> builder.header().keyId(kid).and().signWith(privateKey, algorithm);
+        }
+        return new JwtKeys(signer, legacySecretKey, legacyUntil, Map.copyOf(publicKeys));
+    }
+
+    // Base64 decoded, the way jjwt 0.11 read the string secret, so tokens issued before the upgrade still verify
+    public static SecretKey secretKey(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    // PKCS#8 PEM, keyAlgorithm is the JCA name (RSA or EdDSA)
+    public static PrivateKey readPrivateKey(String pem, String keyAlgorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+    }
+
+    // X.509 SubjectPublicKeyInfo PEM, keyAlgorithm is the JCA name (RSA or EdDSA)
+    public static PublicKey readPublicKey(String pem, String keyAlgorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+    }
+
+    public JwtBuilder sign(JwtBuilder builder) {
+        return signer.apply(builder);
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    private static byte[] decodePem(String pem) {
+        String body = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    /**
+     * Picks the verification key from the token header.
+     * The key type follows the alg header and jjwt checks the two match, so an HS256 token is never checked against a public key.
+     */
+    private static class KeyLocator extends LocatorAdapter<Key> {
+
+        private final SecretKey secretKey;
+        private final Instant secretKeyUntil;
+        private final Map<String, PublicKey> publicKeys;
+
+        KeyLocator(SecretKey secretKey, Instant secretKeyUntil, Map<String, PublicKey> publicKeys) {
+            this.secretKey = secretKey;
+            this.secretKeyUntil = secretKeyUntil;
+            this.publicKeys = publicKeys;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            if (header.getAlgorithm().startsWith("HS")) {
+                if (secretKey == null || !Instant.now().isBefore(secretKeyUntil)) {
+                    throw new UnsupportedJwtException("HMAC signed tokens are not accepted");
+                }
+                return secretKey;
+            }
+            PublicKey publicKey = publicKeys.get(header.getKeyId());
+            if (publicKey == null) {
+                throw new UnsupportedJwtException("Unknown key id " + header.getKeyId());
+            }
+            return publicKey;
+        }
+    }
+}
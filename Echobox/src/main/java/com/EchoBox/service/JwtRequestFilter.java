@@ -1,8 +1,14 @@
 package com.EchoBox.service;
 
-import com.EchoBox.service.JwtUtil;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.JwtPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,16 +21,27 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    // ErrorCode of a bearer token that couldn't be used, read by the authentication entry point
+    public static final String TOKEN_ERROR_ATTRIBUTE = JwtRequestFilter.class.getName() + ".TOKEN_ERROR";
+
     @Autowired
     private UserDetailsService userDetailsService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // When enabled, tokens carrying the user id claim are trusted as-is and the user is not loaded from the database
+    @Value("${jwt.stateless-authentication:true}")
+    private boolean statelessAuthentication;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -33,26 +50,47 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         String username = null;
         String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            try {
+                claims = jwtUtil.extractAllClaims(jwt);
+                username = claims.getSubject();
+            } catch (JwtException | IllegalArgumentException e) {
+                // Clients keep sending their expired access token, the request continues unauthenticated so
+                // permitAll endpoints (refresh, login) still work, and protected ones answer with the reason
+                request.setAttribute(TOKEN_ERROR_ATTRIBUTE,
+                        e instanceof ExpiredJwtException ? ErrorCode.TOKEN_EXPIRED : ErrorCode.INVALID_TOKEN);
+            }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // A revoked token is treated like no token, the request continues unauthenticated
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims.getId())) {
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // The signature and expiration were already checked when the claims were read
+            JwtPrincipal principal = statelessAuthentication ? jwtUtil.extractPrincipal(claims) : null;
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (principal != null) {
+                authenticate(request, principal, principal.getAuthorities());
+            } else {
+                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                if (jwtUtil.validateToken(jwt, userDetails)) {
+                    authenticate(request, userDetails, userDetails.getAuthorities());
+                }
             }
         }
         chain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, Object principal, Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
+                principal, null, authorities);
+        usernamePasswordAuthenticationToken
+                .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+    }
 }
 
@@ -1,22 +1,61 @@
 package com.EchoBox.service;
 
+import com.EchoBox.model.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final long DEFAULT_CACHE_MAX_SIZE = 10_000;
+    private static final long DEFAULT_EXPIRATION_MILLIS = 15 * 60 * 1000;
+
+    private static final String CLAIM_IS_ADMIN = "isAdmin";
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_COMPANY_ID = "companyId";
+
+    private final JwtKeys jwtKeys;
+    private final long expirationMillis;
+
+    // Claims of tokens whose signature was already verified, keyed by the SHA-256 of the token
+    // Each entry is dropped when its token expires, so an expired token always goes back through the parser
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil(String secret) {
+        this(JwtKeys.hmac(secret), DEFAULT_CACHE_MAX_SIZE, DEFAULT_EXPIRATION_MILLIS);
+    }
+
+    @Autowired
+    public JwtUtil(JwtKeys jwtKeys,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                   @Value("${jwt.expiration:900000}") long expirationMillis) {
+        this.jwtKeys = jwtKeys;
+        this.expirationMillis = expirationMillis;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -26,13 +65,20 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    // The jti claim, null for tokens issued before it was added
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    // Verified claims of the token, callers needing several claims read them from one lookup
+    public Claims extractAllClaims(String token) {
+        // Invalid or expired tokens throw inside the loader, so they are never cached
+        return verifiedTokens.get(hash(token), key -> jwtKeys.parser().parseSignedClaims(token).getPayload());
     }
 
     private Boolean isTokenExpired(String token) {
@@ -41,14 +87,37 @@ public class JwtUtil {
 
     public String generateToken(UserDetails userDetails, Boolean isAdmin) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("isAdmin", isAdmin);
+        claims.put(CLAIM_IS_ADMIN, isAdmin);
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Generates a token that also carries the user and company ids, so requests can be authenticated from the token alone.
+     */
+    public String generateToken(UserDetails userDetails, Boolean isAdmin, Integer userId, Integer companyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_IS_ADMIN, isAdmin);
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_COMPANY_ID, companyId);
+        return createToken(claims, userDetails.getUsername());
+    }
+
+    /**
+     * Generates a token from every claim of the principal, the reverse of extractPrincipal.
+     */
+    public String generateToken(JwtPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_IS_ADMIN, principal.isAdmin());
+        claims.put(CLAIM_USER_ID, principal.getUserId());
+        claims.put(CLAIM_COMPANY_ID, principal.getCompanyId());
+        return createToken(claims, principal.getEmail());
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder().setClaims(claims).setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SignatureAlgorithm.HS256, secret).compact();
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder().claims(claims).subject(subject).id(UUID.randomUUID().toString()).issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMillis));
+        return jwtKeys.sign(builder).compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
@@ -58,6 +127,69 @@ public class JwtUtil {
 
     public Boolean isAdmin(String token) {
         final Claims claims = extractAllClaims(token);
-        return claims.get("isAdmin", Boolean.class);
+        return claims.get(CLAIM_IS_ADMIN, Boolean.class);
+    }
+
+    /**
+     * Builds the principal from the signed claims of a valid token.
+     * Returns null for tokens issued before the user id claim existed, those still need a user lookup.
+     */
+    public JwtPrincipal extractPrincipal(String token) {
+        return extractPrincipal(extractAllClaims(token));
+    }
+
+    public JwtPrincipal extractPrincipal(Claims claims) {
+        Integer userId = claims.get(CLAIM_USER_ID, Integer.class);
+        if (userId == null) {
+            return null;
+        }
+        return new JwtPrincipal(
+                userId,
+                claims.get(CLAIM_COMPANY_ID, Integer.class),
+                claims.getSubject(),
+                Boolean.TRUE.equals(claims.get(CLAIM_IS_ADMIN, Boolean.class))
+        );
+    }
+
+    /**
+     * Cache of verified tokens, exposed so its hit/miss statistics can be published as metrics.
+     */
+    public Cache<String, Claims> getVerifiedTokens() {
+        return verifiedTokens;
+    }
+
+    // Hashing keeps the raw bearer tokens out of the heap and gives fixed size keys, also used for the stored refresh tokens
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires each cache entry exactly when the token it belongs to expires.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
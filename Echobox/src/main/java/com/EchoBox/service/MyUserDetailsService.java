@@ -1,5 +1,6 @@
 package com.EchoBox.service;
 
+import com.EchoBox.model.AuthenticatedUser;
 import com.EchoBox.model.User;
 import com.EchoBox.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,6 @@ public class MyUserDetailsService implements UserDetailsService {
             authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
         }
 
-        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), authorities);
+        return new AuthenticatedUser(user, authorities);
     }
 }
@@ -0,0 +1,154 @@
+package com.EchoBox.service;
+
+import com.EchoBox.model.Category;
+import com.EchoBox.model.Status;
+import com.EchoBox.repository.CategoryRepository;
+import com.EchoBox.repository.StatusRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory copy of the small reference tables (categories and statuses).
+ * Loaded at startup, updated by the controllers on every write and reloaded periodically to pick up writes made by other instances.
+ * Ids found missing in the database are remembered for absent-ttl, so repeated lookups of an unknown id don't all reach it.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private static final Duration DEFAULT_ABSENT_TTL = Duration.ofSeconds(30);
+    private static final long ABSENT_MAX_SIZE = 10_000;
+
+    private final Table<Category> categories;
+    private final Table<Status> statuses;
+
+    public ReferenceDataCache(CategoryRepository categoryRepository, StatusRepository statusRepository, MeterRegistry meterRegistry) {
+        this(categoryRepository, statusRepository, meterRegistry, DEFAULT_ABSENT_TTL);
+    }
+
+    @Autowired
+    public ReferenceDataCache(CategoryRepository categoryRepository, StatusRepository statusRepository, MeterRegistry meterRegistry,
+                              @Value("${reference-data.absent-ttl:PT30S}") Duration absentTtl) {
+        this.categories = new Table<>("categories", categoryRepository, Category::getId, absentTtl, meterRegistry);
+        this.statuses = new Table<>("statuses", statusRepository, Status::getId, absentTtl, meterRegistry);
+    }
+
+    public Table<Category> categories() {
+        return categories;
+    }
+
+    public Table<Status> statuses() {
+        return statuses;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reference-data.refresh-interval:PT5M}", fixedDelayString = "${reference-data.refresh-interval:PT5M}")
+    public void reload() {
+        categories.reload();
+        statuses.reload();
+    }
+
+    /**
+     * Snapshot of one reference table, ordered by id.
+     * Readers never lock: every write builds a new map and swaps it in.
+     */
+    public static class Table<T> {
+
+        private final JpaRepository<T, Integer> repository;
+        private final Function<T, Integer> idOf;
+        private final Counter hits;
+        private final Counter misses;
+
+        // Ids the database didn't have either, bounded in size so a scan over random ids can't grow it without limit
+        private final Cache<Integer, Boolean> absent;
+
+        private volatile Map<Integer, T> rows = Collections.emptyMap();
+
+        Table(String name, JpaRepository<T, Integer> repository, Function<T, Integer> idOf, Duration absentTtl, MeterRegistry meterRegistry) {
+            this.repository = repository;
+            this.idOf = idOf;
+            this.absent = Caffeine.newBuilder()
+                    .maximumSize(ABSENT_MAX_SIZE)
+                    .expireAfterWrite(absentTtl)
+                    .build();
+            // Same meter names as the Caffeine caches, so the hit ratio is read the same way for every cache
+            this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit").register(meterRegistry);
+            this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+            Gauge.builder("cache.size", this, table -> table.rows.size()).tag("cache", name).register(meterRegistry);
+        }
+
+        // Not counted in cache.gets, which is about lookups by id: a listing is always served from memory
+        public List<T> findAll() {
+            return new ArrayList<>(rows.values());
+        }
+
+        // A miss falls back to the database, the row may have been created by another instance since the last reload
+        public Optional<T> findById(Integer id) {
+            T row = rows.get(id);
+            if (row != null || absent.getIfPresent(id) != null) {
+                hits.increment();
+                return Optional.ofNullable(row);
+            }
+            misses.increment();
+            Optional<T> loaded = repository.findById(id);
+            loaded.ifPresentOrElse(this::put, () -> absent.put(id, Boolean.TRUE));
+            return loaded;
+        }
+
+        public boolean exists(Integer id) {
+            return findById(id).isPresent();
+        }
+
+        public synchronized void put(T row) {
+            Map<Integer, T> copy = new LinkedHashMap<>(rows);
+            copy.put(idOf.apply(row), row);
+            rows = sorted(copy.values());
+            absent.invalidate(idOf.apply(row));
+        }
+
+        public synchronized void evict(Integer id) {
+            Map<Integer, T> copy = new LinkedHashMap<>(rows);
+            copy.remove(id);
+            rows = Collections.unmodifiableMap(copy);
+        }
+
+        // The query runs outside the lock, a virtual thread blocked on JDBC inside synchronized would pin its carrier
+        public void reload() {
+            Map<Integer, T> loaded = sorted(repository.findAll());
+            synchronized (this) {
+                rows = loaded;
+                absent.invalidateAll();
+            }
+        }
+
+        private Map<Integer, T> sorted(Iterable<T> source) {
+            List<T> list = new ArrayList<>();
+            source.forEach(list::add);
+            list.sort((a, b) -> Integer.compare(idOf.apply(a), idOf.apply(b)));
+
+            Map<Integer, T> map = new LinkedHashMap<>();
+            for (T row : list) {
+                map.put(idOf.apply(row), row);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.AuthenticationResponse;
+import com.EchoBox.model.JwtPrincipal;
+import com.EchoBox.model.RefreshToken;
+import com.EchoBox.model.User;
+import com.EchoBox.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens.
+ * Access tokens are short-lived, a client renews them here without sending the password again, so no BCrypt runs.
+ * Each refresh token is exchanged once: the exchange marks it used and returns the next token of the same family.
+ * A used token presented again means it leaked, so its whole family is revoked and the user has to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final Duration lifetime;
+    private final Counter reused;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtUtil jwtUtil,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-token.lifetime:P30D}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtil = jwtUtil;
+        this.lifetime = lifetime;
+        this.reused = Counter.builder("echobox.refresh-tokens.reused").register(meterRegistry);
+    }
+
+    // Starts a new family, called once per password login
+    public String issue(Integer userId) {
+        return store(userId, UUID.randomUUID());
+    }
+
+    // Not transactional on purpose: the markUsed claim and a family revocation must commit even when the exchange fails
+    public AuthenticationResponse rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(JwtUtil.hash(refreshToken))
+                .orElseThrow(() -> new EchoboxException(ErrorCode.INVALID_REFRESH_TOKEN));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new EchoboxException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.removeFamily(current.getFamily());
+            reused.increment();
+            throw new EchoboxException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+
+        // Claims come from the current user row, so a role change applies from the next refresh
+        User user = current.getUser();
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getCompanyId(), user.getEmail(), Boolean.TRUE.equals(user.getIsAdmin()));
+        return new AuthenticationResponse(jwtUtil.generateToken(principal), store(user.getId(), current.getFamily()));
+    }
+
+    // Logout, every token issued from the same login stops working
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(JwtUtil.hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.removeFamily(token.getFamily()));
+    }
+
+    @Scheduled(initialDelayString = "${jwt.refresh-token.cleanup-interval:PT1H}", fixedDelayString = "${jwt.refresh-token.cleanup-interval:PT1H}")
+    public void removeExpired() {
+        refreshTokenRepository.removeExpired(LocalDateTime.now());
+    }
+
+    private String store(Integer userId, UUID family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        User user = new User();
+        user.setId(userId);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(JwtUtil.hash(token));
+        refreshToken.setFamily(family);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(lifetime));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+}
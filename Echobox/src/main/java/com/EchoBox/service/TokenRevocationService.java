@@ -0,0 +1,148 @@
+package com.EchoBox.service;
+
+import com.EchoBox.model.RevokedToken;
+import com.EchoBox.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWT ids, persisted in revoked_token and mirrored in memory so the request filter never queries the database.
+ * A Bloom filter answers the common case, a token that was never revoked, without touching the exact set.
+ * Only Bloom filter hits are confirmed against the exact set, which rules out the false positives.
+ * Revocations made by other instances are picked up incrementally, and the filter is rebuilt periodically to drop expired ids.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Duration grace;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    private volatile Snapshot snapshot;
+
+    // Newest revokedAt read from the database, only touched by the scheduled jobs
+    private volatile LocalDateTime lastRevokedAt;
+
+    // Ids revoked on this instance while a rebuild reads the table, they may be missing from what it read
+    private volatile Set<String> revokedDuringRebuild;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${jwt.revocation.grace:PT30S}") Duration grace) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.grace = grace;
+        this.snapshot = new Snapshot(expectedTokens, falsePositiveRate);
+        this.revokedHits = Counter.builder("echobox.revoked-tokens.checks").tag("result", "revoked").register(meterRegistry);
+        this.falsePositives = Counter.builder("echobox.revoked-tokens.checks").tag("result", "false-positive").register(meterRegistry);
+        Gauge.builder("echobox.revoked-tokens.size", this, service -> service.snapshot.tokenIds.size()).register(meterRegistry);
+    }
+
+    /**
+     * Whether the token with this jti was revoked, tokens without a jti were issued before revocation existed and never are.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (!current.filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (current.tokenIds.contains(tokenId)) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes a token until its expiration, effective immediately on this instance and within one refresh interval on the others.
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        revokedTokenRepository.revoke(UUID.fromString(tokenId), LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        // Recorded before reading the snapshot, so an id added to a snapshot that is being replaced is always carried over
+        Set<String> pending = revokedDuringRebuild;
+        if (pending != null) {
+            pending.add(tokenId);
+        }
+        snapshot.add(tokenId);
+    }
+
+    // Re-reads the last grace period each time, a revocation committed late can carry a revokedAt older than rows already read
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-interval:PT10S}", fixedDelayString = "${jwt.revocation.refresh-interval:PT10S}")
+    public void refresh() {
+        LocalDateTime since = lastRevokedAt == null ? EPOCH : lastRevokedAt.minus(grace);
+        apply(snapshot, revokedTokenRepository.findByRevokedAtGreaterThanEqual(since));
+    }
+
+    // A Bloom filter can't forget, so expired ids are only dropped by building a new one
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval:PT1H}", fixedDelayString = "${jwt.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        revokedDuringRebuild = pending;
+
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.removeExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+
+        Snapshot rebuilt = new Snapshot(Math.max(expectedTokens, 2L * active.size()), falsePositiveRate);
+        apply(rebuilt, active);
+        snapshot = rebuilt;
+        pending.forEach(rebuilt::add);
+        revokedDuringRebuild = null;
+    }
+
+    private void apply(Snapshot target, List<RevokedToken> rows) {
+        for (RevokedToken row : rows) {
+            target.add(row.getTokenId().toString());
+            if (lastRevokedAt == null || row.getRevokedAt().isAfter(lastRevokedAt)) {
+                lastRevokedAt = row.getRevokedAt();
+            }
+        }
+    }
+
+    private static class Snapshot {
+
+        private final BloomFilter filter;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        Snapshot(long expectedTokens, double falsePositiveRate) {
+            this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        }
+
+        // Exact set first, so a reader that sees the filter bit also finds the id
+        void add(String tokenId) {
+            tokenIds.add(tokenId);
+            filter.add(tokenId);
+        }
+    }
+}
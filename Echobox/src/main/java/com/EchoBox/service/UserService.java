@@ -1,23 +1,86 @@
 package com.EchoBox.service;
 
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.model.User;
+import com.EchoBox.repository.RefreshTokenRepository;
 import com.EchoBox.repository.UserRepository;
+import com.EchoBox.util.PatchRequest;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 public class UserService {
 
+    // Unique index on lower(emailUser), see db/migration/V8__foreign_key_indexes.sql
+    static final String EMAIL_UNIQUE_INDEX = "uq_user_email_lower";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     public User register(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e);
+        }
+    }
+
+    // Single UPDATE statement returning the stored row, a new password is hashed the same way as on registration
+    // A new password or role ends every session: the refresh tokens are deleted in the same transaction
+    @Transactional
+    public Optional<User> update(Integer id, PatchRequest<User> patch) {
+        User user = patch.value();
+        if (user.getPassword() != null) {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        }
+        Optional<User> updated;
+        try {
+            updated = userRepository.updateById(id, patch);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e);
+        }
+        if (updated.isPresent() && (user.getPassword() != null || user.getIsAdmin() != null)) {
+            refreshTokenRepository.removeByUserId(id);
+        }
+        return updated;
+    }
+
+    // Full replace for PUT, the password is required and hashed the same way as on registration
+    // It always sets the password and role, so the refresh tokens are always deleted
+    @Transactional
+    public Optional<User> replace(Integer id, User user) {
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        Optional<User> replaced;
+        try {
+            replaced = userRepository.replaceById(id, user);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e);
+        }
+        replaced.ifPresent(stored -> refreshTokenRepository.removeByUserId(id));
+        return replaced;
+    }
+
+    // The index decides, no SELECT beforehand that a concurrent registration could race past
+    private static RuntimeException translateDuplicateEmail(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && EMAIL_UNIQUE_INDEX.equals(violation.getConstraintName())) {
+            return new EchoboxException(ErrorCode.USER_ALREADY_EXISTS, e);
+        }
+        return e;
     }
 }
 
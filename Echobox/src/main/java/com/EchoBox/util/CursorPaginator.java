@@ -0,0 +1,93 @@
+package com.EchoBox.util;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helper for keyset (cursor) pagination.
+ * Cursors are opaque to clients: they are the seek keys of the last returned row, joined and Base64 (URL safe) encoded.
+ */
+@Component
+public class CursorPaginator {
+
+    private static final String SEPARATOR = "|";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public CursorPaginator(@Value("${pagination.default-size:50}") int defaultSize,
+                           @Value("${pagination.max-size:500}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the page size to use, falling back to the default and never going above the hard cap.
+     */
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT);
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    public String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into its seek keys, rejecting anything that was not produced by encode().
+     */
+    public String[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split("\\" + SEPARATOR, -1);
+            if (keys.length != keyCount) {
+                throw new EchoboxException(ErrorCode.INVALID_INPUT);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT, e);
+        }
+    }
+
+    /**
+     * Decodes a cursor made of a single integer key (usually an id).
+     */
+    public int decodeId(String cursor) {
+        try {
+            return Integer.parseInt(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT, e);
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of size + 1; the extra row only tells us that another page exists.
+     */
+    public <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, Object[]> cursorKeys) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, encode(cursorKeys.apply(items.get(size - 1))));
+    }
+}
@@ -0,0 +1,37 @@
+package com.EchoBox.util;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A PATCH body bound to its entity, together with the names of the JSON fields it carries.
+ * Binding alone turns a field sent as null and a field left out into the same null,
+ * the field names tell them apart: a nullable column is cleared only when its field is present.
+ * Used in the repositories' updateById queries, e.g. CASE WHEN :#{#patch.has('color')} THEN ... ELSE colorCategory END.
+ */
+public record PatchRequest<T>(T value, Set<String> fields) {
+
+    public static <T> PatchRequest<T> of(JsonNode body, Class<T> type, ObjectMapper objectMapper) {
+        if (body == null || !body.isObject()) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT);
+        }
+        try {
+            Set<String> fields = new HashSet<>();
+            body.fieldNames().forEachRemaining(fields::add);
+            return new PatchRequest<>(objectMapper.treeToValue(body, type), fields);
+        } catch (JsonProcessingException e) {
+            throw new EchoboxException(ErrorCode.INVALID_INPUT, e);
+        }
+    }
+
+    // Whether the body carries this JSON field, null or not
+    public boolean has(String field) {
+        return fields.contains(field);
+    }
+}
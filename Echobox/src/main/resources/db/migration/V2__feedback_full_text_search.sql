@@ -0,0 +1,15 @@
+-- Adds the full-text search columns and indexes to an existing database (database.sql already creates them)
+-- The columns are generated by postgres, so existing rows are indexed when the column is added
+
+ALTER TABLE feedback
+    ADD COLUMN IF NOT EXISTS searchPtFeedback TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', titleFeedback), 'A') ||
+        setweight(to_tsvector('portuguese', reviewFeedback), 'B')) STORED;
+
+ALTER TABLE feedback
+    ADD COLUMN IF NOT EXISTS searchEnFeedback TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', titleFeedback), 'A') ||
+        setweight(to_tsvector('english', reviewFeedback), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_feedback_search_pt ON feedback USING GIN (searchPtFeedback);
+CREATE INDEX IF NOT EXISTS idx_feedback_search_en ON feedback USING GIN (searchEnFeedback);
@@ -0,0 +1,9 @@
+-- Hibernate allocates ids in blocks of 50 (pooled-lo), one nextval per block instead of one round trip per insert
+-- The increment must match allocationSize on the entities, database.sql already creates the sequences this way
+
+ALTER SEQUENCE company_idcompany_seq INCREMENT BY 50;
+ALTER SEQUENCE user_iduser_seq INCREMENT BY 50;
+ALTER SEQUENCE category_idcategory_seq INCREMENT BY 50;
+ALTER SEQUENCE status_idstatus_seq INCREMENT BY 50;
+ALTER SEQUENCE feedback_idfeedback_seq INCREMENT BY 50;
+ALTER SEQUENCE reply_idreply_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Covers the GROUP BY of the feedback rollup (GET /feedbacks/rollup), so the counts are read from the index alone
+-- The leading company column also serves the rollup of a single company
+
+CREATE INDEX IF NOT EXISTS idx_feedback_rollup
+    ON feedback (fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus);
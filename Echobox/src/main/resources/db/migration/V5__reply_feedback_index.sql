@@ -0,0 +1,4 @@
+-- Serves the replies of a feedback (GET /feedbacks/{id}/replies and /thread) in keyset order, oldest first
+
+CREATE INDEX IF NOT EXISTS idx_reply_feedback_created
+    ON reply (fk_reply_idFeedback, createdDate, idReply);
@@ -0,0 +1,19 @@
+-- Opaque refresh tokens, stored as the SHA-256 of the token so a database leak doesn't expose usable tokens
+-- Every refresh marks the presented token used and issues the next one in the same family (rotation chain)
+
+CREATE TABLE IF NOT EXISTS refresh_token
+(
+    idRefreshToken         BIGSERIAL PRIMARY KEY NOT NULL,
+    hashRefreshToken       VARCHAR(64)           NOT NULL UNIQUE,
+    familyRefreshToken     UUID                  NOT NULL,
+    fk_refreshToken_idUser INT                   NOT NULL,
+    expiresAtRefreshToken  TIMESTAMP             NOT NULL,
+    usedAtRefreshToken     TIMESTAMP,
+
+    CONSTRAINT fk_refreshToken_user FOREIGN KEY (fk_refreshToken_idUser) REFERENCES "user" (idUser) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family ON refresh_token (familyRefreshToken);
+
+-- Same pooled-lo allocation as the other entities
+ALTER SEQUENCE refresh_token_idrefreshtoken_seq INCREMENT BY 50;
@@ -0,0 +1,11 @@
+-- JWTs revoked before their expiration (logout), keyed by the jti claim
+-- Rows are purged once the token would have expired anyway
+
+CREATE TABLE IF NOT EXISTS revoked_token
+(
+    jtiRevokedToken       UUID PRIMARY KEY NOT NULL,
+    expiresAtRevokedToken TIMESTAMP        NOT NULL,
+    revokedAtRevokedToken TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_revoked_at ON revoked_token (revokedAtRevokedToken);
@@ -0,0 +1,18 @@
+-- Postgres doesn't index the referencing side of a foreign key, so deleting a user, company, category or status
+-- scanned every feedback, reply and refresh token to cascade the delete or check nothing still references the row
+-- fk_feedback_idCompany is already the leading column of idx_feedback_rollup (V4)
+-- and fk_reply_idFeedback of idx_reply_feedback_created (V5)
+
+CREATE INDEX IF NOT EXISTS idx_feedback_user ON feedback (fk_feedback_idUser);
+CREATE INDEX IF NOT EXISTS idx_feedback_category ON feedback (fk_feedback_idCategory);
+CREATE INDEX IF NOT EXISTS idx_feedback_status ON feedback (fk_feedback_idStatus);
+
+CREATE INDEX IF NOT EXISTS idx_reply_user ON reply (fk_reply_idUser);
+
+CREATE INDEX IF NOT EXISTS idx_user_company ON "user" (fk_user_idCompany);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_user ON refresh_token (fk_refreshToken_idUser);
+
+-- Login looks the user up by lower(emailUser), and two accounts can no longer differ only by the case of their email
+-- Fails on a database that already holds such duplicates, they have to be merged before migrating
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_email_lower ON "user" (lower(emailUser));
@@ -0,0 +1,13 @@
+-- Replies are paged by (createdDate, idReply), a reply with no createdDate never matched a keyset condition
+-- and could never be reached past the first page, so the column becomes mandatory
+-- Undated rows predate the replies around them: they take the oldest date of their feedback's replies,
+-- and keep their relative order through idReply
+
+UPDATE reply r
+SET createdDate = COALESCE((SELECT min(dated.createdDate)
+                            FROM reply dated
+                            WHERE dated.fk_reply_idFeedback = r.fk_reply_idFeedback),
+                           CURRENT_TIMESTAMP)
+WHERE r.createdDate IS NULL;
+
+ALTER TABLE reply ALTER COLUMN createdDate SET NOT NULL;
@@ -2,6 +2,7 @@ package com.EchoBox.controller;
 
 import com.EchoBox.model.Category;
 import com.EchoBox.repository.CategoryRepository;
+import com.EchoBox.service.ReferenceDataCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +16,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -36,6 +42,9 @@ public class CategoryControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Test
     public void testGetAllCategories() throws Exception {
         //Given
@@ -48,6 +57,7 @@ public class CategoryControllerTest {
         categories.add(category);
 
         when(categoryRepository.findAll()).thenReturn(categories);
+        referenceDataCache.categories().reload(); // The list is served from memory, loaded before the mock was stubbed
 
         //When/Then
         mockMvc.perform(get("/categories")
@@ -109,8 +119,7 @@ public class CategoryControllerTest {
         category.setType("Tecnologia Atualizada");
         category.setColor("#00ff00");
 
-        when(categoryRepository.existsById(1)).thenReturn(true);
-        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+        when(categoryRepository.replaceById(eq(1), any(Category.class))).thenReturn(Optional.of(category));
 
         //When/Then
         mockMvc.perform(put("/categories/1")
@@ -123,10 +132,83 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    public void testUpdateCategoryWithoutTypeIsRejected() throws Exception {
+        //When/Then
+        mockMvc.perform(put("/categories/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":\"#00ff00\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(categoryRepository, never()).replaceById(any(), any());
+    }
+
+    @Test
+    public void testPatchCategoryPutsStoredRowInCache() throws Exception {
+        //Given
+        Category category = new Category();
+        category.setId(1);
+        category.setType("Tecnologia");
+        category.setColor("#123456");
+
+        when(categoryRepository.updateById(eq(1), any())).thenReturn(Optional.of(category));
+
+        //When/Then
+        mockMvc.perform(patch("/categories/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":\"#123456\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.color").value("#123456"));
+
+        // The row comes back from the UPDATE itself, no SELECT afterwards
+        verify(categoryRepository, never()).findById(any());
+        assertEquals("#123456", referenceDataCache.categories().findById(1).orElseThrow().getColor());
+        referenceDataCache.categories().evict(1); // The cache is shared by every test in the context
+    }
+
+    @Test
+    public void testPatchCategoryExplicitNullClearsColor() throws Exception {
+        //Given
+        Category category = new Category();
+        category.setId(1);
+        category.setType("Tecnologia");
+
+        when(categoryRepository.updateById(eq(1), any())).thenReturn(Optional.of(category));
+
+        //When
+        mockMvc.perform(patch("/categories/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("Tecnologia"));
+
+        //Then
+        // color is sent, so it is cleared; type is left out, so it is kept
+        verify(categoryRepository).updateById(eq(1), argThat(patch ->
+                patch.has("color") && patch.value().getColor() == null && !patch.has("type")));
+        referenceDataCache.categories().evict(1);
+    }
+
+    @Test
+    public void testPatchCategoryNotFound() throws Exception {
+        //Given
+        when(categoryRepository.updateById(eq(999), any())).thenReturn(Optional.empty());
+
+        //When/Then
+        mockMvc.perform(patch("/categories/999")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":\"#123456\"}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testDeleteCategory() throws Exception {
         //Given
-        when(categoryRepository.existsById(1)).thenReturn(true);
+        when(categoryRepository.removeById(1)).thenReturn(1);
 
         //When/Then
         mockMvc.perform(delete("/categories/1")
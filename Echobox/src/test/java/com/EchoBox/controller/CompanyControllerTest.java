@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -117,8 +118,7 @@ public class CompanyControllerTest {
         company.setEmail("updated@company.com");
         company.setCnpj("11122233000144");
 
-        when(companyRepository.existsById(1)).thenReturn(true);
-        when(companyRepository.save(any(Company.class))).thenReturn(company);
+        when(companyRepository.replaceById(eq(1), any(Company.class))).thenReturn(Optional.of(company));
 
         // When/Then
         mockMvc.perform(put("/companies/1")
@@ -135,7 +135,7 @@ public class CompanyControllerTest {
     @Test
     public void testDeleteCompany() throws Exception {
         // Given
-        when(companyRepository.existsById(1)).thenReturn(true);
+        when(companyRepository.removeById(1)).thenReturn(1);
 
         // When/Then
         mockMvc.perform(delete("/companies/1")
@@ -1,23 +1,51 @@
 package com.EchoBox.controller;
 
+import com.EchoBox.model.Category;
 import com.EchoBox.model.Feedback;
+import com.EchoBox.model.FeedbackRollup;
+import com.EchoBox.model.FeedbackSearchResult;
+import com.EchoBox.model.FeedbackSummary;
+import com.EchoBox.model.Reply;
+import com.EchoBox.model.ReplySummary;
+import com.EchoBox.model.Status;
+import com.EchoBox.model.User;
 import com.EchoBox.repository.FeedbackRepository;
+import com.EchoBox.repository.ReplyRepository;
+import com.EchoBox.service.ReferenceDataCache;
+import com.EchoBox.util.CursorPaginator;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
@@ -25,24 +53,31 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 @AutoConfigureMockMvc
 public class FeedbackControllerTest {
 
+    private static final String FULL_FEEDBACK =
+            "{\"title\":\"Updated Feedback\",\"review\":\"Updated review\",\"user\":1,\"company\":1,\"category\":1,\"status\":1}";
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockitoBean
     private FeedbackRepository feedbackRepository;
 
+    @MockitoBean
+    private ReplyRepository replyRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CursorPaginator cursorPaginator;
+
     @Test
     public void testGetAllFeedbacks() throws Exception {
         // Given
-        Feedback feedback = new Feedback();
-        feedback.setId(1);
-        feedback.setTitle("Test Feedback");
-        feedback.setReview("This is a test review");
-
-        List<Feedback> feedbacks = new ArrayList<>();
-        feedbacks.add(feedback);
+        List<FeedbackSummary> feedbacks = new ArrayList<>();
+        feedbacks.add(new FeedbackSummary(1, "Test Feedback", "This is a test review", 1, 1, 1, 1));
 
-        when(feedbackRepository.findAll()).thenReturn(feedbacks);
+        when(feedbackRepository.findAllSummaries()).thenReturn(feedbacks);
 
         // When/Then
         mockMvc.perform(get("/feedbacks")
@@ -104,42 +139,105 @@ public class FeedbackControllerTest {
     @Test
     public void testUpdateFeedback() throws Exception {
         // Given
-        Feedback updatedFeedback = new Feedback();
-        updatedFeedback.setId(1);
-        updatedFeedback.setTitle("Updated Feedback");
-        updatedFeedback.setReview("Updated review");
+        Feedback stored = new Feedback();
+        stored.setId(1);
+        stored.setTitle("Updated Feedback");
+        stored.setReview("Updated review");
+        stored.setUserId(1);
+        stored.setCompanyId(1);
+        stored.setCategoryId(1);
+        stored.setStatusId(1);
 
-        when(feedbackRepository.existsById(1)).thenReturn(true);
-        when(feedbackRepository.save(any(Feedback.class))).thenReturn(updatedFeedback);
+        when(feedbackRepository.replaceById(eq(1), any(Feedback.class))).thenReturn(Optional.of(stored));
 
+        try {
+            knownCategoryAndStatus(1);
+
+            // When/Then
+            mockMvc.perform(put("/feedbacks/1")
+                            .with(user("admin").roles("ADMIN"))
+                            .contentType("application/json")
+                            .content(FULL_FEEDBACK))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1))
+                    .andExpect(jsonPath("$.title").value("Updated Feedback"))
+                    .andExpect(jsonPath("$.review").value("Updated review"))
+                    .andExpect(jsonPath("$.status").value(1));
+        } finally {
+            forgetCategoryAndStatus(1);
+        }
+    }
+
+    @Test
+    public void testUpdateFeedbackNotFound() throws Exception {
+        // Given
+        when(feedbackRepository.replaceById(eq(999), any(Feedback.class))).thenReturn(Optional.empty());
+
+        try {
+            knownCategoryAndStatus(1);
+
+            // When/Then
+            mockMvc.perform(put("/feedbacks/999")
+                            .with(user("admin").roles("ADMIN"))
+                            .contentType("application/json")
+                            .content(FULL_FEEDBACK))
+                    .andExpect(status().isNotFound());
+        } finally {
+            forgetCategoryAndStatus(1);
+        }
+    }
+
+    @Test
+    public void testUpdateFeedbackWithMissingFieldsIsRejected() throws Exception {
         // When/Then
         mockMvc.perform(put("/feedbacks/1")
                         .with(user("admin").roles("ADMIN"))
                         .contentType("application/json")
                         .content("{\"title\":\"Updated Feedback\",\"review\":\"Updated review\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(feedbackRepository, never()).replaceById(any(), any());
+    }
+
+    @Test
+    public void testPatchFeedback() throws Exception {
+        // Given
+        Feedback stored = new Feedback();
+        stored.setId(1);
+        stored.setTitle("Patched title");
+        stored.setReview("Kept review");
+        when(feedbackRepository.updateById(eq(1), any(Feedback.class))).thenReturn(Optional.of(stored));
+
+        // When/Then
+        mockMvc.perform(patch("/feedbacks/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType("application/json")
+                        .content("{\"title\":\"Patched title\"}"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title").value("Updated Feedback"))
-                .andExpect(jsonPath("$.review").value("Updated review"));
+                .andExpect(jsonPath("$.review").value("Kept review"));
+
+        // Only the title is sent, every other column keeps its value
+        verify(feedbackRepository).updateById(eq(1), argThat(feedback ->
+                "Patched title".equals(feedback.getTitle()) && feedback.getReview() == null && feedback.getStatusId() == null));
     }
 
     @Test
-    public void testUpdateFeedbackNotFound() throws Exception {
+    public void testPatchFeedbackNotFound() throws Exception {
         // Given
-        when(feedbackRepository.existsById(999)).thenReturn(false);
+        when(feedbackRepository.updateById(eq(999), any(Feedback.class))).thenReturn(Optional.empty());
 
         // When/Then
-        mockMvc.perform(put("/feedbacks/999")
+        mockMvc.perform(patch("/feedbacks/999")
                         .with(user("admin").roles("ADMIN"))
                         .contentType("application/json")
-                        .content("{\"title\":\"Updated Feedback\",\"review\":\"Updated review\"}"))
+                        .content("{\"title\":\"Patched title\"}"))
                 .andExpect(status().isNotFound());
     }
 
     @Test
     public void testDeleteFeedback() throws Exception {
         // Given
-        when(feedbackRepository.existsById(1)).thenReturn(true);
-        doNothing().when(feedbackRepository).deleteById(1);
+        when(feedbackRepository.removeById(1)).thenReturn(1);
 
         // When/Then
         mockMvc.perform(delete("/feedbacks/1")
@@ -150,11 +248,344 @@ public class FeedbackControllerTest {
     @Test
     public void testDeleteFeedbackNotFound() throws Exception {
         // Given
-        when(feedbackRepository.existsById(999)).thenReturn(false);
+        when(feedbackRepository.removeById(999)).thenReturn(0);
 
         // When/Then
         mockMvc.perform(delete("/feedbacks/999")
                         .with(user("admin").roles("ADMIN")))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testBulkDeleteFeedbacksByIds() throws Exception {
+        // Given
+        when(feedbackRepository.removeByIdIn(new Integer[]{1, 2, 3})).thenReturn(2);
+
+        // When/Then
+        mockMvc.perform(delete("/feedbacks")
+                        .param("ids", "1,2,3")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    public void testBulkDeleteFeedbacksByFilter() throws Exception {
+        // Given
+        when(feedbackRepository.removeByFilter(1, null, 3)).thenReturn(5);
+
+        // When/Then
+        mockMvc.perform(delete("/feedbacks")
+                        .param("company", "1")
+                        .param("status", "3")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(5));
+    }
+
+    @Test
+    public void testBulkDeleteFeedbacksWithoutCriteria() throws Exception {
+        // When/Then
+        mockMvc.perform(delete("/feedbacks")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        verify(feedbackRepository, never()).removeByFilter(any(), any(), any());
+    }
+
+    @Test
+    public void testBulkDeleteFeedbacksWithIdsAndFilter() throws Exception {
+        // When/Then
+        mockMvc.perform(delete("/feedbacks")
+                        .param("ids", "1,2")
+                        .param("company", "1")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetFeedbackPage() throws Exception {
+        // Given
+        List<FeedbackSummary> feedbacks = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            feedbacks.add(new FeedbackSummary(id, "Feedback " + id, "Review " + id, 1, 1, 1, 1));
+        }
+
+        // Page size 2 asks the repository for 3 rows, the third one only signals a next page
+        when(feedbackRepository.findSummariesAfter(eq(0), any(Limit.class))).thenReturn(feedbacks);
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/page")
+                        .param("size", "2")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].title").value("Feedback 2"))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"));
+    }
+
+    @Test
+    public void testGetFeedbackPageWithCursor() throws Exception {
+        // Given
+        FeedbackSummary feedback = new FeedbackSummary(3, "Feedback 3", "Review 3", 1, 1, 1, 1);
+
+        when(feedbackRepository.findSummariesAfter(eq(2), any(Limit.class))).thenReturn(List.of(feedback));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/page")
+                        .param("cursor", "Mg")
+                        .param("size", "2")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Feedback 3"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void testGetFeedbackPageInvalidCursor() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/feedbacks/page")
+                        .param("cursor", "not-a-cursor")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportFeedbacks() throws Exception {
+        // Given
+        FeedbackSummary first = new FeedbackSummary(1, "First", "First review", 1, 1, 1, 1);
+        FeedbackSummary second = new FeedbackSummary(2, "Second", "Second review", 1, 1, 1, 1);
+
+        when(feedbackRepository.streamAllOrderById()).thenReturn(Stream.of(first, second));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/feedbacks/export")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(body.endsWith("\n"));
+    }
+
+    @Test
+    public void testCreateFeedbackWithUnknownCategory() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/feedbacks")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType("application/json")
+                        .content("{\"title\":\"New Feedback\",\"review\":\"New review\",\"category\":999}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("ERR_6000"));
+    }
+
+    @Test
+    public void testSearchFeedbacks() throws Exception {
+        // Given
+        SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        FeedbackSearchResult best = projections.createProjection(FeedbackSearchResult.class,
+                Map.of("id", 4, "title", "Entrega atrasada", "review", "A entrega demorou", "rank", 0.69f));
+        FeedbackSearchResult second = projections.createProjection(FeedbackSearchResult.class,
+                Map.of("id", 2, "title", "Entrega atrasada", "review", "A entrega demorou", "rank", 0.5f));
+
+        when(feedbackRepository.searchPortuguese("entrega", Float.MAX_VALUE, Integer.MAX_VALUE, 2))
+                .thenReturn(List.of(best, second));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/search")
+                        .param("q", "entrega")
+                        .param("size", "1")
+                        .header("Accept-Language", "pt")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(4))
+                .andExpect(jsonPath("$.items[0].title").value("Entrega atrasada"))
+                .andExpect(jsonPath("$.nextCursor").value("MC42OXw0")); // "0.69|4"
+    }
+
+    @Test
+    public void testSearchFeedbacksInEnglishWithCursor() throws Exception {
+        // Given
+        when(feedbackRepository.searchEnglish(eq("delivery"), anyFloat(), anyInt(), anyInt())).thenReturn(List.of());
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/search")
+                        .param("q", "delivery")
+                        .param("cursor", "MC42OXw0")
+                        .param("size", "10")
+                        .header("Accept-Language", "en")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+        verify(feedbackRepository).searchEnglish("delivery", 0.69f, 4, 11);
+    }
+
+    @Test
+    public void testSearchFeedbacksBlankQuery() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/feedbacks/search")
+                        .param("q", " ")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetFeedbackRollup() throws Exception {
+        // Given
+        when(feedbackRepository.rollup()).thenReturn(List.of(
+                new FeedbackRollup(1, 1, 1, 12L),
+                new FeedbackRollup(1, 2, 3, 4L),
+                new FeedbackRollup(2, 1, 1, 7L)));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/rollup")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].company").value(1))
+                .andExpect(jsonPath("$[1].category").value(2))
+                .andExpect(jsonPath("$[1].status").value(3))
+                .andExpect(jsonPath("$[1].count").value(4));
+    }
+
+    @Test
+    public void testGetFeedbackRollupForCompany() throws Exception {
+        // Given
+        when(feedbackRepository.rollupByCompany(2)).thenReturn(List.of(new FeedbackRollup(2, 1, 1, 7L)));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/rollup")
+                        .param("company", "2")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].count").value(7));
+    }
+
+    @Test
+    public void testGetFeedbackReplies() throws Exception {
+        // Given
+        when(replyRepository.findFirstPageByFeedback(eq(1), any(Limit.class))).thenReturn(List.of(
+                replySummary(10, 1, 2, LocalDateTime.of(2025, 1, 1, 10, 0)),
+                replySummary(11, 1, 3, LocalDateTime.of(2025, 1, 1, 11, 0)),
+                replySummary(12, 1, 2, LocalDateTime.of(2025, 1, 1, 12, 0))));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/1/replies")
+                        .param("size", "2")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(10))
+                .andExpect(jsonPath("$.items[1].id").value(11))
+                .andExpect(jsonPath("$.nextCursor").value(cursorPaginator.encode(LocalDateTime.of(2025, 1, 1, 11, 0), 11)));
+    }
+
+    @Test
+    public void testGetFeedbackRepliesWithCursor() throws Exception {
+        // Given
+        LocalDateTime afterDate = LocalDateTime.of(2025, 1, 1, 11, 0);
+        when(replyRepository.findPageByFeedback(eq(1), eq(afterDate), eq(11), any(Limit.class)))
+                .thenReturn(List.of(replySummary(12, 1, 2, LocalDateTime.of(2025, 1, 1, 12, 0))));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/1/replies")
+                        .param("cursor", cursorPaginator.encode(afterDate, 11))
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(12))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void testGetFeedbackRepliesFeedbackNotFound() throws Exception {
+        // Given
+        when(replyRepository.findFirstPageByFeedback(eq(999), any(Limit.class))).thenReturn(List.of());
+        when(feedbackRepository.existsById(999)).thenReturn(false);
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/999/replies")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetFeedbackThread() throws Exception {
+        // Given
+        Feedback feedback = new Feedback();
+        feedback.setId(1);
+        feedback.setTitle("Test Feedback");
+        feedback.setReview("This is a test review");
+        feedback.setUser(author(2));
+
+        when(feedbackRepository.findThreadById(1)).thenReturn(Optional.of(feedback));
+        when(replyRepository.findThreadPageByFeedback(eq(1), any(Limit.class))).thenReturn(List.of(
+                reply(10, 1, 3, LocalDateTime.of(2025, 1, 1, 10, 0)),
+                reply(11, 1, 2, LocalDateTime.of(2025, 1, 1, 11, 0))));
+
+        // When/Then
+        mockMvc.perform(get("/feedbacks/1/thread")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.feedback.title").value("Test Feedback"))
+                .andExpect(jsonPath("$.replies.items", hasSize(2)))
+                .andExpect(jsonPath("$.authors", hasSize(2)))
+                .andExpect(jsonPath("$.authors[0].id").value(2))
+                .andExpect(jsonPath("$.authors[1].id").value(3))
+                .andExpect(jsonPath("$.authors[0].password").doesNotExist());
+    }
+
+    private static Reply reply(Integer id, Integer feedbackId, Integer userId, LocalDateTime createdDate) {
+        Reply reply = new Reply();
+        reply.setId(id);
+        reply.setTitle("Reply " + id);
+        reply.setReview("Thanks for the feedback");
+        reply.setFeedbackId(feedbackId);
+        reply.setUser(author(userId));
+        reply.setCreatedDate(createdDate);
+        return reply;
+    }
+
+    private static ReplySummary replySummary(Integer id, Integer feedbackId, Integer userId, LocalDateTime createdDate) {
+        return new ReplySummary(id, "Reply " + id, "Thanks for the feedback", createdDate, userId, feedbackId);
+    }
+
+    private static User author(Integer id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("hashed");
+        return user;
+    }
+
+    // The reference tables come from the shared in-memory cache, not from the mocked repositories
+    private void knownCategoryAndStatus(int id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setType("Test");
+        referenceDataCache.categories().put(category);
+        Status status = new Status();
+        status.setId(id);
+        status.setType("Test");
+        referenceDataCache.statuses().put(status);
+    }
+
+    private void forgetCategoryAndStatus(int id) {
+        referenceDataCache.categories().evict(id);
+        referenceDataCache.statuses().evict(id);
+    }
 }
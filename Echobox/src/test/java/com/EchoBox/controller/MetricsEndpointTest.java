@@ -0,0 +1,74 @@
+package com.EchoBox.controller;
+
+import com.EchoBox.model.FeedbackSummary;
+import com.EchoBox.repository.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FeedbackRepository feedbackRepository;
+
+    @Test
+    public void testPrometheus_PublishesRequestRowAndErrorMetrics() throws Exception {
+        // Given
+        when(feedbackRepository.findAllSummaries())
+                .thenReturn(List.of(new FeedbackSummary(1, "Test Feedback", "This is a test review", 1, 1, 1, 1)));
+        when(feedbackRepository.findById(999)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/feedbacks").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/feedbacks/999").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+
+        // When/Then
+        mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("echobox_response_rows_count{application=\"Echobox\",method=\"GET\",uri=\"/feedbacks\"} 1")))
+                .andExpect(content().string(containsString("echobox_errors_total{application=\"Echobox\",code=\"ERR_3000\",status=\"404\"} 1")));
+    }
+
+    @Test
+    public void testPrometheus_RequiresAuthentication() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testPrometheus_IsForbiddenToNonAdmins() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/prometheus").with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testHealth_IsPublic() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
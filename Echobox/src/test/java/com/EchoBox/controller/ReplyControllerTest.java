@@ -1,6 +1,7 @@
 package com.EchoBox.controller;
 
 import com.EchoBox.model.Reply;
+import com.EchoBox.model.ReplySummary;
 import com.EchoBox.repository.ReplyRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,9 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -39,18 +43,11 @@ public class ReplyControllerTest {
     @Test
     public void testGetAllReplies() throws Exception {
         // Given
-        Reply reply = new Reply();
-        reply.setId(1);
-        reply.setTitle("Resposta ao Feedback");
-        reply.setReview("Obrigado pelo seu feedback, estamos trabalhando nisso.");
-        reply.setFeedbackId(1);
-        reply.setUserId(1);
-        reply.setCreatedDate(LocalDateTime.now());
-
-        List<Reply> replies = new ArrayList<>();
-        replies.add(reply);
+        List<ReplySummary> replies = new ArrayList<>();
+        replies.add(new ReplySummary(1, "Resposta ao Feedback", "Obrigado pelo seu feedback, estamos trabalhando nisso.",
+                LocalDateTime.now(), 1, 1));
 
-        when(replyRepository.findAll()).thenReturn(replies);
+        when(replyRepository.findAllSummaries()).thenReturn(replies);
 
         // When/Then
         mockMvc.perform(get("/replies")
@@ -129,8 +126,7 @@ public class ReplyControllerTest {
         reply.setFeedbackId(1);
         reply.setUserId(1);
 
-        when(replyRepository.existsById(1)).thenReturn(true);
-        when(replyRepository.save(any(Reply.class))).thenReturn(reply);
+        when(replyRepository.replaceById(eq(1), any(Reply.class))).thenReturn(Optional.of(reply));
 
         // When/Then
         mockMvc.perform(put("/replies/1")
@@ -143,10 +139,22 @@ public class ReplyControllerTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    public void testUpdateReplyWithoutFeedbackIsRejected() throws Exception {
+        // When/Then
+        mockMvc.perform(put("/replies/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Resposta\",\"review\":\"Sem feedback\",\"user\":1}"))
+                .andExpect(status().isBadRequest());
+
+        verify(replyRepository, never()).replaceById(any(), any());
+    }
+
     @Test
     public void testDeleteReply() throws Exception {
         // Given
-        when(replyRepository.existsById(1)).thenReturn(true);
+        when(replyRepository.removeById(1)).thenReturn(1);
 
         // When/Then
         mockMvc.perform(delete("/replies/1")
@@ -209,7 +217,7 @@ public class ReplyControllerTest {
         reply.setFeedbackId(1);
         reply.setUserId(1);
 
-        when(replyRepository.existsById(999)).thenReturn(false);
+        when(replyRepository.replaceById(eq(999), any(Reply.class))).thenReturn(Optional.empty());
 
         // When/Then
         mockMvc.perform(put("/replies/999")
@@ -2,6 +2,7 @@ package com.EchoBox.controller;
 
 import com.EchoBox.model.Status;
 import com.EchoBox.repository.StatusRepository;
+import com.EchoBox.service.ReferenceDataCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +16,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +41,9 @@ public class StatusControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Test
     public void testGetAllStatuses() throws Exception {
         // Given
@@ -47,6 +56,7 @@ public class StatusControllerTest {
         statuses.add(status);
 
         when(statusRepository.findAll()).thenReturn(statuses);
+        referenceDataCache.statuses().reload(); // The list is served from memory, loaded before the mock was stubbed
 
         // When/Then
         mockMvc.perform(get("/statuses")
@@ -109,8 +119,7 @@ public class StatusControllerTest {
         status.setType("Resolvido");
         status.setColor("#0000ff");
 
-        when(statusRepository.existsById(1)).thenReturn(true);
-        when(statusRepository.save(any(Status.class))).thenReturn(status);
+        when(statusRepository.replaceById(eq(1), any(Status.class))).thenReturn(Optional.of(status));
 
         // When/Then
         mockMvc.perform(put("/statuses/1")
@@ -126,7 +135,7 @@ public class StatusControllerTest {
     @Test
     public void testDeleteStatus() throws Exception {
         // Given
-        when(statusRepository.existsById(1)).thenReturn(true);
+        when(statusRepository.removeById(1)).thenReturn(1);
 
         // When/Then
         mockMvc.perform(delete("/statuses/1")
@@ -168,7 +177,7 @@ public class StatusControllerTest {
         status.setType("Teste");
         status.setColor("#000000");
 
-        when(statusRepository.existsById(999)).thenReturn(false);
+        when(statusRepository.replaceById(eq(999), any(Status.class))).thenReturn(Optional.empty());
 
         // When/Then
         mockMvc.perform(put("/statuses/999")
@@ -177,4 +186,29 @@ public class StatusControllerTest {
                         .content(objectMapper.writeValueAsString(status)))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testPatchStatusPutsStoredRowInCache() throws Exception {
+        // Given
+        Status status = new Status();
+        status.setId(1);
+        status.setType("Resolvido");
+
+        when(statusRepository.updateById(eq(1), any())).thenReturn(Optional.of(status));
+
+        // When
+        mockMvc.perform(patch("/statuses/1")
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("Resolvido"));
+
+        // Then
+        // The explicit null reaches the query as a present field, and the returned row is cached without a SELECT
+        verify(statusRepository).updateById(eq(1), argThat(patch -> patch.has("color") && patch.value().getColor() == null));
+        verify(statusRepository, never()).findById(any());
+        assertNull(referenceDataCache.statuses().findById(1).orElseThrow().getColor());
+        referenceDataCache.statuses().evict(1); // The cache is shared by every test in the context
+    }
 }
@@ -1,22 +1,40 @@
 package com.EchoBox.controller;
 
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.AuthenticationResponse;
+import com.EchoBox.model.JwtPrincipal;
 import com.EchoBox.model.User;
+import com.EchoBox.model.UserSummary;
 import com.EchoBox.repository.UserRepository;
+import com.EchoBox.service.JwtKeys;
+import com.EchoBox.service.JwtUtil;
+import com.EchoBox.service.RefreshTokenService;
+import com.EchoBox.service.TokenRevocationService;
 import com.EchoBox.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,21 +54,31 @@ public class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JwtKeys jwtKeys;
+
     @Test
     public void testGetAllUsers() throws Exception {
         // Given
-        User user = new User();
-        user.setId(1);
-        user.setEmail("test@example.com");
-        user.setIsAdmin(false);
+        List<UserSummary> users = new ArrayList<>();
+        users.add(new UserSummary(1, "test@example.com", null, false, null));
 
-        List<User> users = new ArrayList<>();
-        users.add(user);
-
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllSummaries()).thenReturn(users);
 
         // When/Then
         mockMvc.perform(get("/users")
@@ -58,7 +86,8 @@ public class UserControllerTest {
                 )
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].email").value("test@example.com"))
-                .andExpect(jsonPath("$.[0].id").value(1));
+                .andExpect(jsonPath("$.[0].id").value(1))
+                .andExpect(jsonPath("$.[0].password").doesNotExist());
     }
 
     @Test
@@ -100,11 +129,12 @@ public class UserControllerTest {
         mockMvc.perform(post("/users")
                         .with(user("admin").roles("ADMIN", "USER"))
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(user))
+                        .content(body(user))
                 )
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.email").value("newuser@example.com"))
-                .andExpect(jsonPath("$.id").value(1));
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.password").doesNotExist());
     }
 
     @Test
@@ -116,24 +146,30 @@ public class UserControllerTest {
         user.setPassword("newpassword");
         user.setIsAdmin(false);
 
-        when(userRepository.existsById(1)).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        User stored = new User();
+        stored.setId(1);
+        stored.setEmail("updated@example.com");
+        stored.setPassword("$2a$10$storedHash");
+        stored.setIsAdmin(false);
+
+        when(userService.replace(eq(1), any(User.class))).thenReturn(Optional.of(stored));
 
         // When/Then
         mockMvc.perform(put("/users/1")
                         .with(user("admin").roles("ADMIN", "USER"))
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(user))
+                        .content(body(user))
                 )
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("updated@example.com"))
-                .andExpect(jsonPath("$.id").value(1));
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.password").doesNotExist());
     }
 
     @Test
     public void testDeleteUser() throws Exception {
         // Given
-        when(userRepository.existsById(1)).thenReturn(true);
+        when(userRepository.removeById(1)).thenReturn(1);
 
         // When/Then
         mockMvc.perform(delete("/users/1")
@@ -160,10 +196,156 @@ public class UserControllerTest {
         // When/Then
         mockMvc.perform(post("/users/register")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(user))
+                        .content(body(user))
                 )
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.email").value("register@example.com"))
                 .andExpect(jsonPath("$.id").value(1));
     }
+
+    @Test
+    public void testLoginLooksUpTheUserOnce() throws Exception {
+        // Given
+        User user = new User();
+        user.setId(4);
+        user.setEmail("login@example.com");
+        user.setPassword(passwordEncoder.encode("plainPassword123"));
+        user.setIsAdmin(true);
+        user.setCompanyId(2);
+
+        when(userRepository.findByEmail("login@example.com")).thenReturn(Optional.of(user));
+        when(refreshTokenService.issue(4)).thenReturn("refresh-token");
+
+        // When
+        MvcResult result = mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"login@example.com\",\"password\":\"plainPassword123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        String jwt = objectMapper.readTree(result.getResponse().getContentAsString()).get("jwt").asText();
+        assertEquals(new JwtPrincipal(4, 2, "login@example.com", true), jwtUtil.extractPrincipal(jwt));
+        assertEquals("refresh-token", objectMapper.readTree(result.getResponse().getContentAsString()).get("refreshToken").asText());
+        verify(userRepository, times(1)).findByEmail("login@example.com");
+    }
+
+    @Test
+    public void testLoginWithWrongPassword() throws Exception {
+        // Given
+        User user = new User();
+        user.setId(4);
+        user.setEmail("login@example.com");
+        user.setPassword(passwordEncoder.encode("plainPassword123"));
+        user.setIsAdmin(false);
+
+        when(userRepository.findByEmail("login@example.com")).thenReturn(Optional.of(user));
+
+        // When/Then
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"login@example.com\",\"password\":\"wrongPassword\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testRefreshToken() throws Exception {
+        // Given
+        when(refreshTokenService.rotate("refresh-token")).thenReturn(new AuthenticationResponse("new-jwt", "next-refresh-token"));
+
+        // When/Then
+        mockMvc.perform(post("/users/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-token\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jwt").value("new-jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("next-refresh-token"));
+    }
+
+    @Test
+    public void testRefreshWithExpiredAccessToken() throws Exception {
+        // Given the client still sends its expired access token along
+        when(refreshTokenService.rotate("refresh-token")).thenReturn(new AuthenticationResponse("new-jwt", "next-refresh-token"));
+
+        // When/Then
+        mockMvc.perform(post("/users/token/refresh")
+                        .header("Authorization", "Bearer " + expiredToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-token\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jwt").value("new-jwt"));
+    }
+
+    @Test
+    public void testExpiredAccessTokenOnProtectedPath() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/users")
+                        .header("Authorization", "Bearer " + expiredToken()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("ERR_9002"))
+                .andExpect(jsonPath("$.path").value("/users"));
+    }
+
+    @Test
+    public void testMalformedAccessTokenOnProtectedPath() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/users")
+                        .header("Authorization", "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("ERR_9001"));
+    }
+
+    @Test
+    public void testRefreshWithReusedToken() throws Exception {
+        // Given
+        when(refreshTokenService.rotate("used-token")).thenThrow(new EchoboxException(ErrorCode.INVALID_REFRESH_TOKEN));
+
+        // When/Then
+        mockMvc.perform(post("/users/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"used-token\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("ERR_9005"));
+    }
+
+    @Test
+    public void testLogoutRevokesTheTokens() throws Exception {
+        // Given
+        String jwt = jwtUtil.generateToken(new JwtPrincipal(4, 2, "login@example.com", false));
+
+        // When
+        mockMvc.perform(post("/users/logout")
+                        .header("Authorization", "Bearer " + jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"refresh-token\"}"))
+                .andExpect(status().isNoContent());
+
+        // Then
+        verify(tokenRevocationService).revoke(jwtUtil.extractTokenId(jwt), jwtUtil.extractExpiration(jwt));
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    public void testLogoutRequiresAuthentication() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/users/logout")
+                        .header("Accept-Language", "en"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("ERR_9000"))
+                .andExpect(jsonPath("$.message").value("Unauthorized access - authentication required"))
+                .andExpect(jsonPath("$.path").value("/users/logout"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    // The password is write-only, serializing a User leaves it out of the request body
+    private String body(User user) {
+        ObjectNode node = objectMapper.valueToTree(user);
+        node.put("password", user.getPassword());
+        return node.toString();
+    }
+
+    private String expiredToken() {
+        return jwtKeys.sign(Jwts.builder().subject("login@example.com").id("expired")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))).compact();
+    }
 }
@@ -0,0 +1,100 @@
+package com.EchoBox.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorResponseWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ErrorResponseWriter errorResponseWriter;
+
+    @BeforeEach
+    public void setUp() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage(ErrorCode.UNAUTHORIZED_ACCESS.getCode(), Locale.of("pt"), "Acesso não autorizado");
+        messageSource.addMessage(ErrorCode.UNAUTHORIZED_ACCESS.getCode(), Locale.of("en"), "Unauthorized access");
+
+        AcceptHeaderLocaleResolver localeResolver = new AcceptHeaderLocaleResolver();
+        localeResolver.setDefaultLocale(Locale.of("pt"));
+        errorResponseWriter = new ErrorResponseWriter(
+                new MessageCatalogue(messageSource, List.of(Locale.of("pt"), Locale.of("en"))), meterRegistry, localeResolver, objectMapper);
+    }
+
+    @Test
+    public void testWriteRendersAnErrorResponse() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/feedbacks");
+        request.addHeader("Accept-Language", "en");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        errorResponseWriter.write(request, response, ErrorCode.UNAUTHORIZED_ACCESS, HttpStatus.UNAUTHORIZED);
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        ErrorResponse body = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+        assertEquals("ERR_9000", body.getErrorCode());
+        assertEquals("Unauthorized access", body.getMessage());
+        assertEquals(401, body.getStatus());
+        assertEquals("/feedbacks", body.getPath());
+        assertNotNull(body.getTimestamp());
+        assertEquals(1, meterRegistry.get("echobox.errors").tag("code", "ERR_9000").tag("status", "401").counter().count());
+    }
+
+    @Test
+    public void testWriteUsesTheDefaultLocale() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        errorResponseWriter.write(new MockHttpServletRequest("GET", "/feedbacks"), response, ErrorCode.UNAUTHORIZED_ACCESS, HttpStatus.UNAUTHORIZED);
+
+        // Then
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals("Acesso não autorizado", body.get("message").asText());
+    }
+
+    @Test
+    public void testServiceUnavailableAsksToRetry() {
+        // Given
+        ErrorResponse errorResponse = errorResponseWriter.build(ErrorCode.AUTHENTICATION_BUSY, null, "busy",
+                HttpStatus.SERVICE_UNAVAILABLE, "/users/login", Locale.of("en"));
+
+        // When
+        ResponseEntity<ErrorResponse> response = errorResponseWriter.respond(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Then
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("busy", response.getBody().getMessage());
+    }
+
+    @Test
+    public void testDomainExceptionsAreStackless() {
+        // When
+        EchoboxException exception = new ResourceNotFoundException(ErrorCode.FEEDBACK_NOT_FOUND);
+        EchoboxException wrapping = new EchoboxException(ErrorCode.INVALID_INPUT, new IllegalArgumentException("bad cursor"));
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, wrapping.getStackTrace().length);
+        assertNotEquals(0, wrapping.getCause().getStackTrace().length);
+    }
+}
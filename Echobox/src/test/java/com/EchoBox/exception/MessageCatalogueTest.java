@@ -0,0 +1,58 @@
+package com.EchoBox.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageCatalogueTest {
+
+    @Test
+    public void testFindsBundledLocales() {
+        // When
+        List<Locale> locales = MessageCatalogue.bundledLocales("messages");
+
+        // Then
+        assertEquals(2, locales.size());
+        assertTrue(locales.containsAll(List.of(Locale.of("en"), Locale.of("pt"))));
+    }
+
+    @Test
+    public void testMatchesTheMessageSource() {
+        // Given
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(true);
+        MessageCatalogue catalogue = new MessageCatalogue(messageSource, MessageCatalogue.bundledLocales("messages"));
+
+        // When/Then every code reads the same as a MessageSource lookup, including regional and unbundled locales
+        for (Locale locale : List.of(Locale.of("pt"), Locale.of("en"), Locale.forLanguageTag("pt-BR"), Locale.forLanguageTag("en-US"), Locale.of("fr"))) {
+            for (ErrorCode errorCode : ErrorCode.values()) {
+                assertEquals(messageSource.getMessage(errorCode.getCode(), null, "default", locale),
+                        catalogue.getMessage(errorCode, null, "default", locale),
+                        errorCode + " in " + locale);
+            }
+        }
+    }
+
+    @Test
+    public void testFormatsArguments() {
+        // Given
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage(ErrorCode.FEEDBACK_NOT_FOUND.getCode(), Locale.ENGLISH, "Feedback {0} not found");
+        MessageCatalogue catalogue = new MessageCatalogue(messageSource, List.of(Locale.ENGLISH));
+
+        // When
+        String message = catalogue.getMessage(ErrorCode.FEEDBACK_NOT_FOUND, new Object[]{42}, null, Locale.ENGLISH);
+
+        // Then
+        assertEquals("Feedback 42 not found", message);
+        assertEquals("Feedback {0} not found", catalogue.getMessage(ErrorCode.FEEDBACK_NOT_FOUND, null, null, Locale.ENGLISH));
+        assertEquals("fallback", catalogue.getMessage(ErrorCode.USER_NOT_FOUND, null, "fallback", Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,108 @@
+package com.EchoBox.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with EXPLAIN that the lookups by email and by foreign key are served by the indexes of the migrations,
+ * and that the constraints the migrations add are enforced.
+ * The test database holds a handful of rows, where a sequential scan is always cheapest,
+ * so sequential scans are disabled for the test transaction: the planner then picks the index if one matches.
+ */
+@SpringBootTest
+@Transactional
+public class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    public void testLoginByEmailUsesCaseInsensitiveIndex() {
+        // When
+        String plan = explain("SELECT * FROM \"user\" WHERE lower(emailUser) = lower('Login@Example.com')");
+
+        // Then
+        assertTrue(plan.contains("uq_user_email_lower"), plan);
+    }
+
+    @Test
+    public void testEmailIsUniqueIgnoringCase() {
+        // Given
+        Integer companyId = jdbcTemplate.queryForObject(
+                "INSERT INTO company (nameCompany, emailCompany, cnpjCompany) VALUES ('Index Test', 'index@example.com', '00000000000000') " +
+                "RETURNING idCompany", Integer.class);
+        jdbcTemplate.update("INSERT INTO \"user\" (emailUser, passwordUser, isAdminUser, fk_user_idCompany) VALUES (?, 'hash', false, ?)",
+                "index.test@example.com", companyId);
+
+        // When/Then
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO \"user\" (emailUser, passwordUser, isAdminUser, fk_user_idCompany) VALUES (?, 'hash', false, ?)",
+                "Index.Test@Example.com", companyId));
+    }
+
+    @Test
+    public void testUsersByCompanyUseIndex() {
+        assertUsesIndex("SELECT * FROM \"user\" WHERE fk_user_idCompany = 1", "idx_user_company");
+    }
+
+    @Test
+    public void testFeedbacksByForeignKeyUseIndexes() {
+        assertUsesIndex("SELECT * FROM feedback WHERE fk_feedback_idUser = 1", "idx_feedback_user");
+        assertUsesIndex("SELECT * FROM feedback WHERE fk_feedback_idCompany = 1", "idx_feedback_rollup");
+        assertUsesIndex("SELECT * FROM feedback WHERE fk_feedback_idCategory = 1", "idx_feedback_category");
+        assertUsesIndex("SELECT * FROM feedback WHERE fk_feedback_idStatus = 1", "idx_feedback_status");
+    }
+
+    @Test
+    public void testRepliesByForeignKeyUseIndexes() {
+        assertUsesIndex("SELECT * FROM reply WHERE fk_reply_idFeedback = 1", "idx_reply_feedback_created");
+        assertUsesIndex("SELECT * FROM reply WHERE fk_reply_idUser = 1", "idx_reply_user");
+    }
+
+    @Test
+    public void testRefreshTokensByUserUseIndex() {
+        assertUsesIndex("SELECT * FROM refresh_token WHERE fk_refreshToken_idUser = 1", "idx_refresh_token_user");
+    }
+
+    @Test
+    public void testReplyCreatedDateIsMandatory() {
+        // Given
+        Integer companyId = jdbcTemplate.queryForObject(
+                "INSERT INTO company (nameCompany, emailCompany, cnpjCompany) VALUES ('Index Test', 'index@example.com', '00000000000000') " +
+                "RETURNING idCompany", Integer.class);
+        Integer userId = jdbcTemplate.queryForObject("INSERT INTO \"user\" (emailUser, passwordUser, isAdminUser, fk_user_idCompany) " +
+                "VALUES ('reply.date@example.com', 'hash', false, ?) RETURNING idUser", Integer.class, companyId);
+        Integer categoryId = jdbcTemplate.queryForObject("INSERT INTO category (typeCategory) VALUES ('Index Test') RETURNING idCategory", Integer.class);
+        Integer statusId = jdbcTemplate.queryForObject("INSERT INTO status (typeStatus) VALUES ('Index Test') RETURNING idStatus", Integer.class);
+        Integer feedbackId = jdbcTemplate.queryForObject("INSERT INTO feedback (titleFeedback, reviewFeedback, fk_feedback_idUser, " +
+                "fk_feedback_idCompany, fk_feedback_idCategory, fk_feedback_idStatus) VALUES ('Index Test', 'Index Test', ?, ?, ?, ?) " +
+                "RETURNING idFeedback", Integer.class, userId, companyId, categoryId, statusId);
+
+        // When/Then a reply without a date could never be reached by the keyset pagination
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO reply (titleReply, reviewReply, fk_reply_idFeedback, fk_reply_idUser, createdDate) VALUES ('Reply', 'Reply', ?, ?, NULL)",
+                feedbackId, userId));
+    }
+
+    private void assertUsesIndex(String query, String index) {
+        String plan = explain(query);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in the plan of " + query + "\n" + plan);
+    }
+
+    private String explain(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+}
@@ -0,0 +1,130 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 10, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        String hash = encoder.encode("plainPassword123");
+
+        // Then
+        assertTrue(encoder.matches("plainPassword123", hash));
+        assertFalse(encoder.matches("wrongPassword", hash));
+        assertEquals(1, meterRegistry.get("echobox.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("echobox.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testRejectsWhenPoolAndQueueAreFull() throws Exception {
+        // Given one hash running and one waiting in a queue of one
+        BlockingEncoder blocking = new BlockingEncoder();
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> encoder.encode("third"));
+
+        // Then
+        assertEquals(ErrorCode.AUTHENTICATION_BUSY, exception.getErrorCode());
+        assertEquals(1, meterRegistry.get("echobox.password.hash.rejected").counter().count());
+
+        blocking.release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRejectsWhenHashTakesLongerThanTimeout() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> encoder.matches("plainPassword123", "hash"));
+
+        // Then
+        assertEquals(ErrorCode.AUTHENTICATION_BUSY, exception.getErrorCode());
+    }
+
+    @Test
+    public void testQueuedHashOfTimedOutCallerIsDropped() throws Exception {
+        // Given one hash running, so the next one can only wait in the queue
+        BlockingEncoder blocking = new BlockingEncoder();
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofMillis(200), meterRegistry);
+        callers.submit(() -> encoder.encode("first"));
+        assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+
+        // When the queued caller times out
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> encoder.encode("second"));
+
+        // Then its hash has left the queue, and never runs once the thread is free again
+        assertEquals(ErrorCode.AUTHENTICATION_BUSY, exception.getErrorCode());
+        assertEquals(0, meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value());
+        blocking.release.countDown();
+        assertEquals("hash", encoder.encode("third"));
+        assertEquals(2, blocking.calls.get());
+    }
+
+    // Holds every hash until released, so the pool can be saturated deterministically
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
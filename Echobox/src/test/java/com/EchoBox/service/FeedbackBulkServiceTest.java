@@ -0,0 +1,211 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.BulkIngestResponse;
+import com.EchoBox.model.Category;
+import com.EchoBox.model.Feedback;
+import com.EchoBox.model.Status;
+import com.EchoBox.repository.CategoryRepository;
+import com.EchoBox.repository.StatusRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedbackBulkServiceTest {
+
+    private static final String VALID = "{\"title\":\"Entrega\",\"review\":\"Chegou rápido\",\"user\":1,\"company\":1,\"category\":1,\"status\":1}";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    private ReferenceDataCache referenceDataCache;
+
+    private FeedbackBulkService feedbackBulkService;
+
+    @BeforeEach
+    public void setUp() {
+        Category category = new Category();
+        category.setId(1);
+        Status status = new Status();
+        status.setId(1);
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        when(statusRepository.findAll()).thenReturn(List.of(status));
+        referenceDataCache = new ReferenceDataCache(categoryRepository, statusRepository, new SimpleMeterRegistry());
+        referenceDataCache.reload();
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        // User 1 and company 1 exist
+        lenient().when(jdbcTemplate.queryForList(eq(FeedbackBulkService.EXISTING_USERS), eq(Integer.class), any(Object[].class)))
+                .thenReturn(List.of(1));
+        lenient().when(jdbcTemplate.queryForList(eq(FeedbackBulkService.EXISTING_COMPANIES), eq(Integer.class), any(Object[].class)))
+                .thenReturn(List.of(1));
+
+        feedbackBulkService = new FeedbackBulkService(jdbcTemplate, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), referenceDataCache, new ObjectMapper(), 2, 100);
+    }
+
+    @Test
+    public void testIngest_JsonArrayWrittenInChunks() throws Exception {
+        // Given
+        when(jdbcTemplate.queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class)))
+                .thenReturn(List.of(10))
+                .thenReturn(List.of(60));
+
+        // When
+        BulkIngestResponse response = feedbackBulkService.ingest(body("[" + VALID + "," + VALID + "," + VALID + "]"));
+
+        // Then
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getRejected());
+        assertEquals(List.of(10, 11, 60), response.getResults().stream().map(r -> r.getId()).toList());
+        verify(jdbcTemplate).update(endsWith("(?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?)"), any(Object[].class));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    public void testIngest_NdjsonWithInvalidItems() throws Exception {
+        // Given
+        String invalid = "{\"title\":\"\",\"review\":\"Sem título\",\"user\":1,\"company\":1,\"category\":1,\"status\":1}";
+        String unknownCategory = "{\"title\":\"Preço\",\"review\":\"Caro\",\"user\":1,\"company\":1,\"category\":99,\"status\":1}";
+        when(jdbcTemplate.queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class))).thenReturn(List.of(10));
+
+        // When
+        BulkIngestResponse response = feedbackBulkService.ingest(body(invalid + "\n" + VALID + "\n" + unknownCategory + "\n"));
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getRejected());
+        assertEquals("ERR_3001", response.getResults().get(0).getErrorCode());
+        assertEquals("title", response.getResults().get(0).getFieldErrors().get(0).getField());
+        assertEquals(10, response.getResults().get(1).getId());
+        assertEquals("ERR_6000", response.getResults().get(2).getErrorCode());
+    }
+
+    @Test
+    public void testIngest_FailedChunkRetriedRowByRow() throws Exception {
+        // Given a user deleted between the lookup and the INSERT
+        when(jdbcTemplate.queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class)))
+                .thenReturn(List.of(10));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataIntegrityViolationException("fk_feedback_idUser"))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("fk_feedback_idUser"));
+
+        // When
+        BulkIngestResponse response = feedbackBulkService.ingest(body("[" + VALID + "," + VALID + "]"));
+
+        // Then the retries reuse the ids reserved for the chunk
+        assertEquals(1, response.getCreated());
+        assertEquals(10, response.getResults().get(0).getId());
+        assertEquals("ERR_3001", response.getResults().get(1).getErrorCode());
+        verify(jdbcTemplate, times(1)).queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class));
+        verify(jdbcTemplate).update(anyString(), eq(new Object[]{11, "Entrega", "Chegou rápido", 1, 1, 1, 1}));
+    }
+
+    @Test
+    public void testIngest_UnknownUserOrCompanyRejectedBeforeInsert() throws Exception {
+        // Given
+        String unknownUser = "{\"title\":\"Entrega\",\"review\":\"Atrasou\",\"user\":2,\"company\":1,\"category\":1,\"status\":1}";
+        String unknownCompany = "{\"title\":\"Entrega\",\"review\":\"Atrasou\",\"user\":1,\"company\":2,\"category\":1,\"status\":1}";
+        when(jdbcTemplate.queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class)))
+                .thenReturn(List.of(10));
+
+        // When
+        BulkIngestResponse response = feedbackBulkService.ingest(body(unknownUser + "\n" + unknownCompany + "\n" + VALID));
+
+        // Then one lookup per reference table, and only the valid row reserves an id and is inserted
+        assertEquals(1, response.getCreated());
+        assertEquals("ERR_2000", response.getResults().get(0).getErrorCode());
+        assertEquals("ERR_5000", response.getResults().get(1).getErrorCode());
+        assertEquals(10, response.getResults().get(2).getId());
+        verify(jdbcTemplate).queryForList(eq(FeedbackBulkService.EXISTING_USERS), eq(Integer.class), eq(new Object[]{new Integer[]{2, 1}}));
+        verify(jdbcTemplate).queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), eq(new Object[]{1}));
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    public void testIngest_MalformedItemStopsReading() throws Exception {
+        // Given
+        when(jdbcTemplate.queryForList(eq(FeedbackBulkService.NEXT_ID_BLOCKS), eq(Integer.class), any(Object[].class))).thenReturn(List.of(10));
+
+        // When
+        BulkIngestResponse response = feedbackBulkService.ingest(body(VALID + "\n{\"title\": \n" + VALID));
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(1, response.getResults().get(1).getIndex());
+        assertEquals("ERR_1002", response.getResults().get(1).getErrorCode());
+    }
+
+    @Test
+    public void testIngest_OversizedBodyRejectedBeforeAnyWrite() {
+        // Given
+        FeedbackBulkService limited = new FeedbackBulkService(jdbcTemplate, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), referenceDataCache, new ObjectMapper(), 2, 3);
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class,
+                () -> limited.ingest(body("[" + VALID + "," + VALID + "," + VALID + "," + VALID + "]")));
+
+        // Then
+        assertEquals(ErrorCode.TOO_MANY_ITEMS, exception.getErrorCode());
+        assertArrayEquals(new Object[]{"3"}, exception.getArgs());
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    public void testIdBlockSizeMatchesSequenceIncrement() {
+        // Given
+        when(jdbcTemplate.queryForObject(FeedbackBulkService.SEQUENCE_INCREMENT, Long.class, Feedback.ID_SEQUENCE)).thenReturn(50L);
+
+        // When/Then
+        assertDoesNotThrow(() -> feedbackBulkService.verifyIdBlockSize());
+    }
+
+    @Test
+    public void testIdBlockSizeMismatchFailsStartup() {
+        // Given
+        when(jdbcTemplate.queryForObject(FeedbackBulkService.SEQUENCE_INCREMENT, Long.class, Feedback.ID_SEQUENCE)).thenReturn(1L);
+
+        // When/Then
+        assertThrows(IllegalStateException.class, () -> feedbackBulkService.verifyIdBlockSize());
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,179 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.JwtPrincipal;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtRequestFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter jwtRequestFilter;
+    private UserDetails adminDetails;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtil = new JwtUtil("mySecretKeyForTestingJwtTokenGenerationAndValidation12345");
+
+        jwtRequestFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(jwtRequestFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtRequestFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtRequestFilter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(jwtRequestFilter, "statelessAuthentication", true);
+
+        adminDetails = new User(
+            "admin@example.com",
+            "password",
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"))
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testStatelessAuthentication_UsesTokenClaims() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(adminDetails, true, 7, 3);
+
+        // When
+        jwtRequestFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(7, principal.getUserId());
+        assertEquals(3, principal.getCompanyId());
+        assertEquals("admin@example.com", authentication.getName());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testStatelessAuthentication_LegacyTokenFallsBackToLookup() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(adminDetails, true); // No user id claim
+        when(userDetailsService.loadUserByUsername("admin@example.com")).thenReturn(adminDetails);
+
+        // When
+        jwtRequestFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertSame(adminDetails, authentication.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@example.com");
+    }
+
+    @Test
+    public void testStatelessAuthenticationDisabled_LoadsUser() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtRequestFilter, "statelessAuthentication", false);
+        String token = jwtUtil.generateToken(adminDetails, true, 7, 3);
+        when(userDetailsService.loadUserByUsername("admin@example.com")).thenReturn(adminDetails);
+
+        // When
+        jwtRequestFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertSame(adminDetails, authentication.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@example.com");
+    }
+
+    @Test
+    public void testRevokedToken_LeavesContextEmpty() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(adminDetails, true, 7, 3);
+        when(tokenRevocationService.isRevoked(jwtUtil.extractTokenId(token))).thenReturn(true);
+
+        // When
+        jwtRequestFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testNoAuthorizationHeader_LeavesContextEmpty() throws Exception {
+        // When
+        jwtRequestFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testExpiredToken_ContinuesUnauthenticated() throws Exception {
+        // Given
+        String token = JwtKeys.hmac("mySecretKeyForTestingJwtTokenGenerationAndValidation12345")
+                .sign(Jwts.builder().subject("admin@example.com").expiration(new Date(System.currentTimeMillis() - 60_000)))
+                .compact();
+        MockHttpServletRequest request = requestWithToken(token);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        assertEquals(ErrorCode.TOKEN_EXPIRED, request.getAttribute(JwtRequestFilter.TOKEN_ERROR_ATTRIBUTE));
+    }
+
+    @Test
+    public void testMalformedToken_ContinuesUnauthenticated() throws Exception {
+        // Given
+        MockHttpServletRequest request = requestWithToken("not-a-token");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        assertEquals(ErrorCode.INVALID_TOKEN, request.getAttribute(JwtRequestFilter.TOKEN_ERROR_ATTRIBUTE));
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
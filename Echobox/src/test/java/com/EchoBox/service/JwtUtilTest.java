@@ -1,12 +1,14 @@
 package com.EchoBox.service;
 
+import com.EchoBox.model.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 import java.util.Date;
@@ -22,8 +24,7 @@ public class JwtUtilTest {
 
     @BeforeEach
     public void setUp() {
-        jwtUtil = new JwtUtil();
-        ReflectionTestUtils.setField(jwtUtil, "secret", testSecret);
+        jwtUtil = new JwtUtil(testSecret);
 
         userDetails = new User(
             "user@example.com",
@@ -259,5 +260,46 @@ public class JwtUtilTest {
         assertTrue(isAdmin2);
         assertEquals(isAdmin1, isAdmin2);
     }
-}
 
+    @Test
+    public void testVerifiedTokenCache_RepeatedParsesHitCache() {
+        // Given
+        String token = jwtUtil.generateToken(adminDetails, true);
+
+        // When
+        jwtUtil.extractUsername(token);
+        jwtUtil.validateToken(token, adminDetails);
+        jwtUtil.isAdmin(token);
+
+        // Then
+        CacheStats stats = jwtUtil.getVerifiedTokens().stats();
+        assertEquals(1, stats.missCount()); // Only the first call verifies the signature
+        assertEquals(3, stats.hitCount()); // validateToken reads the claims twice
+        assertEquals(1, jwtUtil.getVerifiedTokens().estimatedSize());
+    }
+
+    @Test
+    public void testVerifiedTokenCache_TamperedTokenIsNotCached() {
+        // Given
+        String token = jwtUtil.generateToken(userDetails, false);
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        // When/Then
+        assertThrows(SignatureException.class, () -> jwtUtil.extractUsername(tampered));
+        assertThrows(SignatureException.class, () -> jwtUtil.extractUsername(tampered));
+        assertEquals(0, jwtUtil.getVerifiedTokens().estimatedSize());
+    }
+
+    @Test
+    public void testGenerateTokenFromPrincipal() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(5, 3, "admin@example.com", true);
+
+        // When
+        String token = jwtUtil.generateToken(principal);
+
+        // Then
+        assertEquals(principal, jwtUtil.extractPrincipal(token));
+    }
+}
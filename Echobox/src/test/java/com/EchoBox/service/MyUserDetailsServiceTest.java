@@ -1,5 +1,7 @@
 package com.EchoBox.service;
 
+import com.EchoBox.model.AuthenticatedUser;
+import com.EchoBox.model.JwtPrincipal;
 import com.EchoBox.model.User;
 import com.EchoBox.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -193,5 +195,21 @@ public class MyUserDetailsServiceTest {
         assertTrue(userDetails.isAccountNonLocked());
         assertTrue(userDetails.isCredentialsNonExpired());
     }
-}
 
+    @Test
+    public void testLoadUserByUsername_CarriesTokenClaims() {
+        // Given
+        adminUser.setCompanyId(7);
+        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(adminUser));
+
+        // When
+        UserDetails userDetails = myUserDetailsService.loadUserByUsername("admin@example.com");
+
+        // Then
+        JwtPrincipal principal = assertInstanceOf(AuthenticatedUser.class, userDetails).toPrincipal();
+        assertEquals(2, principal.getUserId());
+        assertEquals(7, principal.getCompanyId());
+        assertEquals("admin@example.com", principal.getEmail());
+        assertTrue(principal.isAdmin());
+    }
+}
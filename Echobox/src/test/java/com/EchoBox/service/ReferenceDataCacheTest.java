@@ -0,0 +1,172 @@
+package com.EchoBox.service;
+
+import com.EchoBox.model.Category;
+import com.EchoBox.model.Status;
+import com.EchoBox.repository.CategoryRepository;
+import com.EchoBox.repository.StatusRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReferenceDataCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    private MeterRegistry meterRegistry;
+    private ReferenceDataCache referenceDataCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        referenceDataCache = new ReferenceDataCache(categoryRepository, statusRepository, meterRegistry);
+
+        when(categoryRepository.findAll()).thenReturn(List.of(category(2, "Preços"), category(1, "Qualidade do Produto")));
+        when(statusRepository.findAll()).thenReturn(List.of(status(1, "Pendente")));
+        referenceDataCache.reload();
+    }
+
+    @Test
+    public void testFindAll_ServedFromMemoryInIdOrder() {
+        // When
+        List<Category> categories = referenceDataCache.categories().findAll();
+        referenceDataCache.categories().findAll();
+
+        // Then
+        assertEquals(2, categories.size());
+        assertEquals(1, categories.get(0).getId());
+        assertEquals(2, categories.get(1).getId());
+        verify(categoryRepository, times(1)).findAll(); // Only the initial load
+        assertEquals(0.0, gets("categories", "hit")); // Listings aren't lookups by id
+        assertEquals(0.0, gets("categories", "miss"));
+    }
+
+    @Test
+    public void testFindById_Hit() {
+        // When
+        Optional<Status> status = referenceDataCache.statuses().findById(1);
+
+        // Then
+        assertTrue(status.isPresent());
+        assertEquals("Pendente", status.get().getType());
+        verify(statusRepository, never()).findById(any());
+        assertEquals(1.0, gets("statuses", "hit"));
+        assertEquals(0.0, gets("statuses", "miss"));
+    }
+
+    @Test
+    public void testFindById_MissReadsThroughAndCaches() {
+        // Given
+        when(categoryRepository.findById(3)).thenReturn(Optional.of(category(3, "Relatório de Bug")));
+
+        // When
+        referenceDataCache.categories().findById(3);
+        Optional<Category> second = referenceDataCache.categories().findById(3);
+
+        // Then
+        assertTrue(second.isPresent());
+        verify(categoryRepository, times(1)).findById(3);
+        assertEquals(1.0, gets("categories", "miss"));
+        assertEquals(1.0, gets("categories", "hit"));
+    }
+
+    @Test
+    public void testExists_UnknownId() {
+        // Given
+        when(statusRepository.findById(99)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertFalse(referenceDataCache.statuses().exists(99));
+    }
+
+    @Test
+    public void testFindById_UnknownIdRemembered() {
+        // Given
+        when(statusRepository.findById(99)).thenReturn(Optional.empty());
+
+        // When
+        referenceDataCache.statuses().findById(99);
+        Optional<Status> second = referenceDataCache.statuses().findById(99);
+
+        // Then
+        assertTrue(second.isEmpty());
+        verify(statusRepository, times(1)).findById(99);
+        assertEquals(1.0, gets("statuses", "miss"));
+        assertEquals(1.0, gets("statuses", "hit"));
+    }
+
+    @Test
+    public void testFindById_UnknownIdForgottenOnPut() {
+        // Given
+        when(statusRepository.findById(99)).thenReturn(Optional.empty());
+        referenceDataCache.statuses().findById(99);
+
+        // When
+        referenceDataCache.statuses().put(status(99, "Arquivado"));
+
+        // Then
+        assertTrue(referenceDataCache.statuses().exists(99));
+    }
+
+    @Test
+    public void testFindById_UnknownIdExpires() throws Exception {
+        // Given
+        referenceDataCache = new ReferenceDataCache(categoryRepository, statusRepository, meterRegistry, Duration.ofMillis(20));
+        when(statusRepository.findById(99)).thenReturn(Optional.empty(), Optional.of(status(99, "Arquivado")));
+        referenceDataCache.statuses().findById(99);
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertTrue(referenceDataCache.statuses().exists(99));
+        verify(statusRepository, times(2)).findById(99);
+    }
+
+    @Test
+    public void testPutAndEvict_WriteThrough() {
+        // When
+        referenceDataCache.categories().put(category(1, "Qualidade"));
+        referenceDataCache.categories().evict(2);
+
+        // Then
+        List<Category> categories = referenceDataCache.categories().findAll();
+        assertEquals(1, categories.size());
+        assertEquals("Qualidade", categories.get(0).getType());
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "categories").gauge().value());
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).counter().count();
+    }
+
+    private static Category category(int id, String type) {
+        Category category = new Category();
+        category.setId(id);
+        category.setType(type);
+        return category;
+    }
+
+    private static Status status(int id, String type) {
+        Status status = new Status();
+        status.setId(id);
+        status.setType(type);
+        return status;
+    }
+}
@@ -0,0 +1,134 @@
+package com.EchoBox.service;
+
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
+import com.EchoBox.model.AuthenticationResponse;
+import com.EchoBox.model.JwtPrincipal;
+import com.EchoBox.model.RefreshToken;
+import com.EchoBox.model.User;
+import com.EchoBox.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String SECRET = "mySecretKeyForTestingJwtTokenGenerationAndValidation12345";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET);
+    private RefreshTokenService refreshTokenService;
+    private RefreshToken stored;
+
+    @BeforeEach
+    public void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtUtil, meterRegistry, Duration.ofDays(30));
+
+        User user = new User();
+        user.setId(4);
+        user.setEmail("user@example.com");
+        user.setIsAdmin(false);
+        user.setCompanyId(2);
+
+        stored = new RefreshToken();
+        stored.setId(10L);
+        stored.setFamily(UUID.randomUUID());
+        stored.setUser(user);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    public void testIssueStoresOnlyTheHash() {
+        // When
+        String token = refreshTokenService.issue(4);
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(JwtUtil.hash(token), captor.getValue().getTokenHash());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+        assertEquals(4, captor.getValue().getUser().getId());
+        assertNotNull(captor.getValue().getFamily());
+    }
+
+    @Test
+    public void testRotateReturnsNewTokensInTheSameFamily() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(JwtUtil.hash("refresh-token"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        AuthenticationResponse response = refreshTokenService.rotate("refresh-token");
+
+        // Then
+        assertEquals(new JwtPrincipal(4, 2, "user@example.com", false), jwtUtil.extractPrincipal(response.getJwt()));
+        assertNotEquals("refresh-token", response.getRefreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(stored.getFamily(), captor.getValue().getFamily());
+        assertEquals(JwtUtil.hash(response.getRefreshToken()), captor.getValue().getTokenHash());
+    }
+
+    @Test
+    public void testReusedTokenRevokesTheFamily() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(JwtUtil.hash("refresh-token"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> refreshTokenService.rotate("refresh-token"));
+
+        // Then
+        assertEquals(ErrorCode.INVALID_REFRESH_TOKEN, exception.getErrorCode());
+        verify(refreshTokenRepository).removeFamily(stored.getFamily());
+        verify(refreshTokenRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("echobox.refresh-tokens.reused").counter().count());
+    }
+
+    @Test
+    public void testUnknownTokenIsRejected() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> refreshTokenService.rotate("unknown"));
+
+        // Then
+        assertEquals(ErrorCode.INVALID_REFRESH_TOKEN, exception.getErrorCode());
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        // Given
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(JwtUtil.hash("refresh-token"))).thenReturn(Optional.of(stored));
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> refreshTokenService.rotate("refresh-token"));
+
+        // Then
+        assertEquals(ErrorCode.INVALID_REFRESH_TOKEN, exception.getErrorCode());
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+}
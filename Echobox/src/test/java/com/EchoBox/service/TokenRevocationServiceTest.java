@@ -0,0 +1,129 @@
+package com.EchoBox.service;
+
+import com.EchoBox.model.RevokedToken;
+import com.EchoBox.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void setUp() {
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, meterRegistry, 1000, 0.01, Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testRevokeIsEffectiveImmediately() {
+        // Given
+        String tokenId = UUID.randomUUID().toString();
+
+        // When
+        tokenRevocationService.revoke(tokenId, new Date(System.currentTimeMillis() + 60_000));
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(tokenId));
+        assertFalse(tokenRevocationService.isRevoked(UUID.randomUUID().toString()));
+        verify(revokedTokenRepository).revoke(eq(UUID.fromString(tokenId)), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testTokensWithoutIdAreNeverRevoked() {
+        // When
+        tokenRevocationService.revoke(null, new Date());
+
+        // Then
+        assertFalse(tokenRevocationService.isRevoked(null));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    public void testRefreshPicksUpRevocationsFromOtherInstances() {
+        // Given
+        LocalDateTime revokedAt = LocalDateTime.now();
+        RevokedToken first = revokedToken(revokedAt.minusSeconds(5));
+        RevokedToken second = revokedToken(revokedAt);
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any(LocalDateTime.class)))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first, second));
+
+        // When
+        tokenRevocationService.refresh();
+        tokenRevocationService.refresh();
+
+        // Then the second poll starts one grace period before the newest revocation seen
+        assertTrue(tokenRevocationService.isRevoked(first.getTokenId().toString()));
+        assertTrue(tokenRevocationService.isRevoked(second.getTokenId().toString()));
+        verify(revokedTokenRepository).findByRevokedAtGreaterThanEqual(first.getRevokedAt().minusSeconds(30));
+    }
+
+    @Test
+    public void testRebuildDropsExpiredRevocations() {
+        // Given
+        RevokedToken expired = revokedToken(LocalDateTime.now().minusHours(2));
+        RevokedToken active = revokedToken(LocalDateTime.now());
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any(LocalDateTime.class))).thenReturn(List.of(expired, active));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(active));
+        tokenRevocationService.refresh();
+
+        // When
+        tokenRevocationService.rebuild();
+
+        // Then
+        assertFalse(tokenRevocationService.isRevoked(expired.getTokenId().toString()));
+        assertTrue(tokenRevocationService.isRevoked(active.getTokenId().toString()));
+        verify(revokedTokenRepository).removeExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testBloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("revoked-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("revoked-" + i));
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private static RevokedToken revokedToken(LocalDateTime revokedAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(UUID.randomUUID());
+        revokedToken.setRevokedAt(revokedAt);
+        revokedToken.setExpiresAt(revokedAt.plusMinutes(15));
+        return revokedToken;
+    }
+}
@@ -1,18 +1,29 @@
 package com.EchoBox.service;
 
+import com.EchoBox.exception.EchoboxException;
+import com.EchoBox.exception.ErrorCode;
 import com.EchoBox.model.User;
+import com.EchoBox.repository.RefreshTokenRepository;
 import com.EchoBox.repository.UserRepository;
+import com.EchoBox.util.PatchRequest;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +35,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
     @InjectMocks
     private UserService userService;
 
@@ -208,4 +222,133 @@ public class UserServiceTest {
         assertEquals("unique@example.com", result.getEmail());
         assertEquals(10, result.getId());
     }
+
+    @Test
+    public void testUpdateUser_EncodesNewPassword() {
+        // Given
+        String encodedPassword = "$2a$10$encodedPasswordHash";
+
+        when(passwordEncoder.encode("plainPassword123")).thenReturn(encodedPassword);
+        when(userRepository.updateById(eq(1), any())).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<User> updated = userService.update(1, patchOf(testUser, "email", "password", "isAdmin"));
+
+        // Then
+        assertTrue(updated.isPresent());
+        verify(userRepository, times(1)).updateById(eq(1), argThat(request -> request.value().getPassword().equals(encodedPassword)));
+        verify(refreshTokenRepository, times(1)).removeByUserId(1);
+    }
+
+    @Test
+    public void testUpdateUser_NewRoleRevokesRefreshTokens() {
+        // Given
+        User patch = new User();
+        patch.setIsAdmin(true);
+
+        when(userRepository.updateById(eq(1), any())).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.update(1, patchOf(patch, "isAdmin"));
+
+        // Then
+        verify(refreshTokenRepository, times(1)).removeByUserId(1);
+    }
+
+    @Test
+    public void testUpdateUser_UnknownIdRevokesNothing() {
+        // Given
+        when(passwordEncoder.encode("plainPassword123")).thenReturn("$2a$10$encodedPasswordHash");
+        when(userRepository.updateById(eq(99), any())).thenReturn(Optional.empty());
+
+        // When
+        userService.update(99, patchOf(testUser, "email", "password", "isAdmin"));
+
+        // Then
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    public void testUpdateUser_WithoutPasswordKeepsCurrentOne() {
+        // Given
+        User patch = new User();
+        patch.setPicture("https://example.com/picture.png");
+
+        when(userRepository.updateById(eq(1), any())).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.update(1, patchOf(patch, "picture"));
+
+        // Then
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, times(1)).updateById(eq(1), argThat(request -> request.value().getPassword() == null && request.value().getIsAdmin() == null));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    public void testRegisterUser_DuplicateEmailIsConflict() {
+        // Given
+        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encodedPasswordHash");
+        when(userRepository.save(any(User.class))).thenThrow(integrityViolation(UserService.EMAIL_UNIQUE_INDEX));
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> userService.register(testUser));
+
+        // Then
+        assertEquals(ErrorCode.USER_ALREADY_EXISTS, exception.getErrorCode());
+    }
+
+    @Test
+    public void testUpdateUser_DuplicateEmailIsConflict() {
+        // Given
+        User patch = new User();
+        patch.setEmail("TAKEN@example.com");
+
+        when(userRepository.updateById(eq(1), any())).thenThrow(integrityViolation(UserService.EMAIL_UNIQUE_INDEX));
+
+        // When
+        EchoboxException exception = assertThrows(EchoboxException.class, () -> userService.update(1, patchOf(patch, "email")));
+
+        // Then
+        assertEquals(ErrorCode.USER_ALREADY_EXISTS, exception.getErrorCode());
+    }
+
+    @Test
+    public void testRegisterUser_OtherIntegrityViolationsAreNotTranslated() {
+        // Given
+        DataIntegrityViolationException violation = integrityViolation("fk_user_company");
+        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encodedPasswordHash");
+        when(userRepository.save(any(User.class))).thenThrow(violation);
+
+        // When/Then
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> userService.register(testUser)));
+    }
+
+    @Test
+    public void testReplaceUser_EncodesPassword() {
+        // Given
+        String encodedPassword = "$2a$10$encodedPasswordHash";
+
+        when(passwordEncoder.encode("plainPassword123")).thenReturn(encodedPassword);
+        when(userRepository.replaceById(eq(1), any(User.class))).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<User> replaced = userService.replace(1, testUser);
+
+        // Then
+        assertTrue(replaced.isPresent());
+        verify(userRepository, times(1)).replaceById(eq(1), argThat(user -> user.getPassword().equals(encodedPassword)));
+        verify(refreshTokenRepository, times(1)).removeByUserId(1);
+    }
+
+    // Shape of the exception Spring Data translates a violated index or constraint into
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("duplicate key"), constraintName));
+    }
+
+    // The PATCH body as the controller hands it over: the bound user and the JSON fields it carried
+    private static PatchRequest<User> patchOf(User user, String... fields) {
+        return new PatchRequest<>(user, Set.of(fields));
+    }
 }